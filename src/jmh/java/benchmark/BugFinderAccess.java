@@ -0,0 +1,149 @@
+package benchmark;
+
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * BugFinderAccess lets the benchmarks call MyBugFinder. JMH refuses benchmarks in the default package, and
+ * classes of a named package cannot refer to the default one, so the entry points are looked up reflectively,
+ * once, and called through method handles.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+final class BugFinderAccess {
+    /**
+     * stream dropping all the detector messages, so that the console does not take part in the measurement
+     */
+    static final PrintStream NULL_OUT = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    });
+
+    private static final MethodHandle NEW_SOURCE_PARSER = constructor("SourceParser", boolean.class);
+    private static final MethodHandle PARSE_RECOVERING = method("SourceParser", "parseRecovering", String.class);
+    private static final MethodHandle NEW_SESSION = constructor("AnalysisSession", CompilationUnit.class, String.class, boolean.class, PrintStream.class);
+    private static final MethodHandle LOAD_SETS = method("AnalysisSession", "loadSets");
+    private static final MethodHandle NEW_TRAVERSAL = constructor("DetectorTraversal", List.class);
+    private static final MethodHandle RUN_TRAVERSAL = method("DetectorTraversal", "run", type("AnalysisSession"));
+    private static final MethodHandle DETECT_BAD_STRING_COMPARISON = method("MyBugFinder", "detectBadStringComparison", type("AnalysisSession"));
+    private static final MethodHandle NEW_ENGINE = constructor("BugFinderEngine", int.class);
+    private static final MethodHandle ANALYZE = method("BugFinderEngine", "analyze", List.class, PrintStream.class);
+
+    private BugFinderAccess() {
+    }
+
+    /**
+     * @return new SourceParser(attributeComments)
+     */
+    static Object newSourceParser(final boolean attributeComments) throws Throwable {
+        return NEW_SOURCE_PARSER.invoke(attributeComments);
+    }
+
+    /**
+     * Parse like the engine does, recovering from the errors
+     * @return the compilationUnit of SourceParser.parseRecovering(source), null if the parser could not recover
+     */
+    @SuppressWarnings("unchecked")
+    static CompilationUnit parseRecovering(final Object sourceParser, final String source) throws Throwable {
+        return ((ParseResult<CompilationUnit>) PARSE_RECOVERING.invoke(sourceParser, source)).getResult().orElse(null);
+    }
+
+    /**
+     * @return new AnalysisSession(compilationUnit, "benchmark", false, NULL_OUT)
+     */
+    static Object newSession(final CompilationUnit compilationUnit) throws Throwable {
+        return NEW_SESSION.invoke(compilationUnit, "benchmark", false, NULL_OUT);
+    }
+
+    /**
+     * @return a DetectorTraversal running the detectors of the given classes, e.g. "BadStringComparisonDetector"
+     */
+    static Object newTraversal(final List<String> detectorClassNames) throws Throwable {
+        List<Supplier<Object>> detectorFactories = new ArrayList<>();
+        for (String detectorClassName : detectorClassNames) {
+            MethodHandle newDetector = constructor(detectorClassName);
+            detectorFactories.add(() -> {
+                try {
+                    return newDetector.invoke();
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            });
+        }
+        return NEW_TRAVERSAL.invoke(detectorFactories);
+    }
+
+    /**
+     * @return the results of DetectorTraversal.run(session)
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Boolean> runTraversal(final Object traversal, final Object session) throws Throwable {
+        return (Map<String, Boolean>) RUN_TRAVERSAL.invoke(traversal, session);
+    }
+
+    /**
+     * @return the result of the multi-pass MyBugFinder.detectBadStringComparison(session), after loading its sets
+     */
+    static boolean detectBadStringComparison(final Object session) throws Throwable {
+        LOAD_SETS.invoke(session);
+        return (boolean) DETECT_BAD_STRING_COMPARISON.invoke(session);
+    }
+
+    /**
+     * @return new BugFinderEngine(workerCount)
+     */
+    static Object newEngine(final int workerCount) throws Throwable {
+        return NEW_ENGINE.invoke(workerCount);
+    }
+
+    /**
+     * @return the reports of BugFinderEngine.analyze(javaFilesPathList, NULL_OUT)
+     */
+    static List<?> analyze(final Object engine, final List<String> javaFilesPathList) throws Throwable {
+        return (List<?>) ANALYZE.invoke(engine, javaFilesPathList, NULL_OUT);
+    }
+
+    private static Class<?> type(final String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("MyBugFinder class not on the classpath: " + className, e);
+        }
+    }
+
+    private static MethodHandle constructor(final String className, final Class<?>... parameterTypes) {
+        try {
+            Constructor<?> constructor = type(className).getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("cannot access the constructor of " + className, e);
+        }
+    }
+
+    private static MethodHandle method(final String className, final String name, final Class<?>... parameterTypes) {
+        try {
+            Method method = type(className).getDeclaredMethod(name, parameterTypes);
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("cannot access " + className + "." + name, e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package benchmark;
+
+import com.github.javaparser.ast.CompilationUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of MyBugFinder over the three bundled Joda-time corpora: parse time, time of every detector,
+ * and files per second of the whole engine. Run from the project root so that the corpora are found:
+ *   mvn -Pbenchmark package -DskipTests
+ *   java -jar target/benchmarks.jar BugFinderBenchmark -rf json -rff target/jmh-result.json
+ * Forks, warmup and measurement are fixed here, so results of two commits on the same machine are comparable.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BugFinderBenchmark {
+    private static final String CORPORA_DIRECTORY = "src/main/resourse/JodaFiles/";
+
+    /**
+     * The files of one corpus, kept in memory so that disk reads stay out of the parse and detector measurements
+     */
+    @State(Scope.Benchmark)
+    public static class Corpus {
+        @Param({"JodaTime-pre-abstract", "joda-time-1.0", "joda-time-2.0"})
+        public String corpus;
+
+        List<String> javaFilesPathList;
+        List<String> sources;
+        List<CompilationUnit> compilationUnits;
+
+        @Setup(Level.Trial)
+        public void load() throws Throwable {
+            try (Stream<Path> paths = Files.walk(Paths.get(CORPORA_DIRECTORY + corpus))) {
+                javaFilesPathList = paths.filter(path -> path.toString().endsWith(".java"))
+                        .map(path -> path.toAbsolutePath().toString())
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            sources = new ArrayList<>(javaFilesPathList.size());
+            compilationUnits = new ArrayList<>(javaFilesPathList.size());
+            // parsed like the engine does, so a file with syntax errors does not fail the whole setup
+            Object sourceParser = BugFinderAccess.newSourceParser(false);
+            for (String javaFilePath : javaFilesPathList) {
+                String source = new String(Files.readAllBytes(Paths.get(javaFilePath)), StandardCharsets.UTF_8);
+                sources.add(source);
+                CompilationUnit compilationUnit = BugFinderAccess.parseRecovering(sourceParser, source);
+                // a file the parser cannot recover from is only left out of the detect benchmark, as the engine fails it
+                if (compilationUnit != null) {
+                    compilationUnits.add(compilationUnit);
+                }
+            }
+        }
+    }
+
+    /**
+     * The parser measured by the parse benchmark: the SourceParser of the engine, configured as the engine configures
+     * it, without comment attribution unless a detector reads the comments
+     */
+    @State(Scope.Thread)
+    public static class Parser {
+        @Param({"no-comments", "comments"})
+        public String parser;
+
+        Object sourceParser;
+
+        @Setup(Level.Trial)
+        public void create() throws Throwable {
+            sourceParser = BugFinderAccess.newSourceParser(parser.equals("comments"));
+        }
+    }
+
+    /**
+     * The detectors measured by the detect benchmark, alone or all together as in the engine
+     */
+    @State(Scope.Benchmark)
+    public static class Detectors {
+        @Param({"BadStringComparisonDetector", "CloneableDetector", "DuplicatedStringLiteralDetector", "all"})
+        public String detector;
+
+        Object traversal;
+
+        @Setup(Level.Trial)
+        public void create() throws Throwable {
+            List<String> detectorClassNames = detector.equals("all")
+                    ? Arrays.asList("BadStringComparisonDetector", "CloneableDetector", "DuplicatedStringLiteralDetector")
+                    : Collections.singletonList(detector);
+            traversal = BugFinderAccess.newTraversal(detectorClassNames);
+        }
+    }
+
+    /**
+     * Files analyzed by the end-to-end benchmark, reported by JMH as files per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class FileCounter {
+        public long files;
+    }
+
+    /**
+     * Parse every file of the corpus, recovering from the errors like the engine
+     */
+    @Benchmark
+    public void parse(Corpus corpus, Parser parser, Blackhole blackhole) throws Throwable {
+        for (String source : corpus.sources) {
+            blackhole.consume(BugFinderAccess.parseRecovering(parser.sourceParser, source));
+        }
+    }
+
+    /**
+     * Run the selected detectors over the already parsed corpus
+     */
+    @Benchmark
+    public void detect(Corpus corpus, Detectors detectors, Blackhole blackhole) throws Throwable {
+        for (CompilationUnit compilationUnit : corpus.compilationUnits) {
+            blackhole.consume(BugFinderAccess.runTraversal(detectors.traversal, BugFinderAccess.newSession(compilationUnit)));
+        }
+    }
+
+    /**
+     * Read, parse and inspect the whole corpus with the engine, on a single worker
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void endToEnd(Corpus corpus, FileCounter fileCounter, Blackhole blackhole) throws Throwable {
+        blackhole.consume(BugFinderAccess.analyze(BugFinderAccess.newEngine(1), corpus.javaFilesPathList));
+        fileCounter.files += corpus.javaFilesPathList.size();
+    }
+}
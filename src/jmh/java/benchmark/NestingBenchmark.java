@@ -0,0 +1,57 @@
+package benchmark;
+
+import com.github.javaparser.ast.CompilationUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of detectBadStringComparison on classes nested depth levels deep, each holding one comparison.
+ * The AST grows linearly with depth, and so must the score: a quadratic curve means expressions are
+ * walked once per enclosing declaration again.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class NestingBenchmark {
+    @Param({"8", "32", "128"})
+    public int depth;
+
+    private CompilationUnit compilationUnit;
+
+    @Setup(Level.Trial)
+    public void generate() throws Throwable {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            source.append("class Nested").append(i).append(" {\n")
+                    .append("    String a").append(i).append(" = \"a\";\n")
+                    .append("    String b").append(i).append(" = \"b\";\n")
+                    .append("    boolean compare() { return a").append(i).append(" == b").append(i).append("; }\n");
+        }
+        for (int i = 0; i < depth; i++) {
+            source.append("}\n");
+        }
+        compilationUnit = BugFinderAccess.parseRecovering(BugFinderAccess.newSourceParser(false), source.toString());
+    }
+
+    @Benchmark
+    public boolean detectBadStringComparison() throws Throwable {
+        return BugFinderAccess.detectBadStringComparison(BugFinderAccess.newSession(compilationUnit));
+    }
+}
@@ -0,0 +1,330 @@
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.Range;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AnalysisCache keeps the report of every analyzed file on disk, so that an unchanged file is neither parsed
+ * nor inspected again by the next run. Entries are keyed by a SHA-256 hash of the file content together with
+ * the version of the detector set, which is itself a hash of the detector bytecode, nested classes included,
+ * of the JavaParser release and of the engine configuration: changing any of them makes every old entry unreachable.
+ * Writing an entry is best effort: a report that cannot be stored is only counted, the run goes on without it.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class AnalysisCache {
+    private static final String RESULT_COUNT_KEY = "results";
+    private static final String RESULT_PREFIX = "result.";
+    private static final String FINDING_COUNT_KEY = "findings";
+    private static final String FINDING_PREFIX = "finding.";
+    private static final String JAVAPARSER_POM_PROPERTIES = "META-INF/maven/com.github.javaparser/javaparser-core/pom.properties";
+
+    private final Path directory;
+    private final byte[] detectorSetVersion;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private final AtomicInteger writeFailures = new AtomicInteger();
+    private volatile String lastWriteFailure;
+
+    /**
+     * @param directory directory holding the cache entries, created if needed
+     * @param detectorSetVersion version of the detector set, see versionOf
+     * @throws IOException if the directory cannot be created
+     */
+    AnalysisCache(final Path directory, final String detectorSetVersion) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.detectorSetVersion = detectorSetVersion.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compute the version of a detector set from the bytecode of its classes and from the JavaParser release
+     * @param configuration settings changing the reports, e.g. the mode of the engine
+     * @param detectorClasses classes whose code decides the content of the reports, their nested, local and
+     *                        anonymous classes are hashed with them
+     * @return hex encoded hash identifying the detector set
+     */
+    static String versionOf(final String configuration, final Iterable<Class<?>> detectorClasses) {
+        MessageDigest digest = newDigest();
+        digest.update(configuration.getBytes(StandardCharsets.UTF_8));
+        // another parser release may build other trees, or other ranges, from the same code
+        if (!hashResource(digest, JavaParser.class, "/" + JAVAPARSER_POM_PROPERTIES)) {
+            // e.g. a repackaged parser: its main class changes with the release too
+            hashResource(digest, JavaParser.class, "/com/github/javaparser/JavaParser.class");
+        }
+        for (Class<?> detectorClass : detectorClasses) {
+            hashClass(digest, detectorClass);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static void hashClass(final MessageDigest digest, final Class<?> type) {
+        digest.update(type.getName().getBytes(StandardCharsets.UTF_8));
+        String resourceName = "/" + type.getName().replace('.', '/');
+        if (!hashResource(digest, type, resourceName + ".class")) {
+            throw new IllegalStateException("cannot find the bytecode of " + type.getName());
+        }
+        for (Class<?> memberClass : type.getDeclaredClasses()) {
+            hashClass(digest, memberClass);
+        }
+        // anonymous and local classes are numbered from 1 by the compiler, e.g. AnalysisSession$1
+        for (int i = 1; hashResource(digest, type, resourceName + "$" + i + ".class"); i++) {
+            // hashed by the condition
+        }
+    }
+
+    /**
+     * @return false if there is no such resource
+     */
+    private static boolean hashResource(final MessageDigest digest, final Class<?> type, final String resourceName) {
+        try (InputStream resource = type.getResourceAsStream(resourceName)) {
+            if (resource == null) {
+                return false;
+            }
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = resource.read(buffer)) != -1) {
+                digest.update(buffer, 0, length);
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param content raw bytes of a source file
+     * @return key of the cache entry for this content and detector set
+     */
+    String keyOf(final byte[] content) {
+        return keyOf(ByteBuffer.wrap(content));
+    }
+
+    /**
+     * @param content raw bytes of a source file, consumed
+     * @return key of the cache entry for this content and detector set
+     */
+    String keyOf(final ByteBuffer content) {
+        MessageDigest digest = newDigest();
+        digest.update(detectorSetVersion);
+        digest.update(content);
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Look up the report stored for a key
+     * @param key key returned by keyOf
+     * @param path path of the file now being analyzed
+     * @param sizeBytes size of the file
+     * @param readNanos time spent reading the file in this run
+     * @return the cached report, or null if there is none
+     */
+    FileReport lookup(final String key, final String path, final long sizeBytes, final long readNanos) {
+        Properties entry = new Properties();
+        try (InputStream in = Files.newInputStream(entryPath(key))) {
+            entry.load(in);
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return null;
+        } catch (IOException | IllegalArgumentException e) {
+            // unreadable entry, it is simply analyzed and written again
+            misses.incrementAndGet();
+            return null;
+        }
+        Map<String, Boolean> results = loadResults(entry);
+        List<Finding> findings = loadFindings(entry, path);
+        if (results == null || findings == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return new FileReport(path, findings, results, Collections.emptyList(), sizeBytes, readNanos, 0, 0);
+    }
+
+    /**
+     * Store the report of a file, replacing the entry atomically so that concurrent readers never see half of it.
+     * An entry that cannot be written, e.g. on a full disk, is counted and left out: the report itself is fine.
+     * @param key key returned by keyOf
+     * @param report report of the file
+     * @return false if the entry could not be written
+     */
+    boolean store(final String key, final FileReport report) {
+        try {
+            write(key, report);
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            writeFailures.incrementAndGet();
+            lastWriteFailure = e.toString();
+            return false;
+        }
+    }
+
+    private void write(final String key, final FileReport report) throws IOException {
+        Properties entry = new Properties();
+        // numbered, the properties of an entry have no order and the results are printed in the order of the detectors
+        entry.setProperty(RESULT_COUNT_KEY, Integer.toString(report.getResults().size()));
+        int index = 0;
+        for (Map.Entry<String, Boolean> result : report.getResults().entrySet()) {
+            entry.setProperty(RESULT_PREFIX + index + ".name", result.getKey());
+            entry.setProperty(RESULT_PREFIX + index + ".value", result.getValue().toString());
+            index++;
+        }
+        List<Finding> findings = report.getFindings();
+        entry.setProperty(FINDING_COUNT_KEY, Integer.toString(findings.size()));
+        for (int i = 0; i < findings.size(); i++) {
+            Finding finding = findings.get(i);
+            entry.setProperty(FINDING_PREFIX + i + ".rule", finding.getRuleId());
+            if (finding.getRange().isPresent()) {
+                Range range = finding.getRange().get();
+                entry.setProperty(FINDING_PREFIX + i + ".range",
+                        range.begin.line + "," + range.begin.column + "," + range.end.line + "," + range.end.column);
+            }
+            entry.setProperty(FINDING_PREFIX + i + ".message", finding.getMessage());
+            entry.setProperty(FINDING_PREFIX + i + ".snippet", finding.getSnippet());
+        }
+
+        Path entryPath = entryPath(key);
+        Files.createDirectories(entryPath.getParent());
+        Path temporaryPath = Files.createTempFile(entryPath.getParent(), key, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporaryPath)) {
+                entry.store(out, null);
+            }
+            try {
+                Files.move(temporaryPath, entryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryPath, entryPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            // already moved when the entry was written
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    /**
+     * @return the results of the entry in the order they were stored, or null if the entry is incomplete
+     */
+    private static Map<String, Boolean> loadResults(final Properties entry) {
+        String count = entry.getProperty(RESULT_COUNT_KEY);
+        if (count == null) {
+            return null;
+        }
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < Integer.parseInt(count); i++) {
+                String name = entry.getProperty(RESULT_PREFIX + i + ".name");
+                String value = entry.getProperty(RESULT_PREFIX + i + ".value");
+                if (name == null || value == null) {
+                    return null;
+                }
+                results.put(name, Boolean.valueOf(value));
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return results;
+    }
+
+    /**
+     * the findings are stored without their path: the same content may be found again under another one
+     * @return the findings of the entry, or null if the entry is incomplete
+     */
+    private static List<Finding> loadFindings(final Properties entry, final String path) {
+        String count = entry.getProperty(FINDING_COUNT_KEY);
+        if (count == null) {
+            return null;
+        }
+        List<Finding> findings = new ArrayList<>();
+        try {
+            for (int i = 0; i < Integer.parseInt(count); i++) {
+                String ruleId = entry.getProperty(FINDING_PREFIX + i + ".rule");
+                String range = entry.getProperty(FINDING_PREFIX + i + ".range");
+                String message = entry.getProperty(FINDING_PREFIX + i + ".message");
+                String snippet = entry.getProperty(FINDING_PREFIX + i + ".snippet");
+                if (ruleId == null || message == null || snippet == null) {
+                    return null;
+                }
+                findings.add(new Finding(ruleId, path, range == null ? null : toRange(range), message, snippet));
+            }
+        } catch (IllegalArgumentException e) {
+            // includes NumberFormatException
+            return null;
+        }
+        return findings;
+    }
+
+    /**
+     * @param range "beginLine,beginColumn,endLine,endColumn" as written by store
+     */
+    private static Range toRange(final String range) {
+        String[] bounds = range.split(",");
+        if (bounds.length != 4) {
+            throw new IllegalArgumentException("malformed range " + range);
+        }
+        return Range.range(Integer.parseInt(bounds[0]), Integer.parseInt(bounds[1]),
+                Integer.parseInt(bounds[2]), Integer.parseInt(bounds[3]));
+    }
+
+    int getHits() {
+        return hits.get();
+    }
+
+    int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return number of entries that could not be written
+     */
+    int getWriteFailures() {
+        return writeFailures.get();
+    }
+
+    /**
+     * @return the error of the last entry that could not be written, null if there is none
+     */
+    String getLastWriteFailure() {
+        return lastWriteFailure;
+    }
+
+    /**
+     * entries are spread over 256 sub-directories to keep directory listings short
+     */
+    private Path entryPath(final String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ".properties");
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,249 @@
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AnalysisSession owns everything MyBugFinder knows about one source file: its compilationUnit, the
+ * facts derived from it and the findings reported on it. Facts are only computed when an inspection first
+ * asks for them. Sessions share nothing, so many files can be inspected at once without locking.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class AnalysisSession {
+    // MyBugFinder has no say in which inspections run, so it keeps the comments
+    private static final SourceParser SOURCE_PARSER = new SourceParser(true);
+    // marks a fact being computed, to catch a fact depending on itself
+    private static final Object COMPUTING = new Object();
+
+    /**
+     * ids of the names of the CLASS-LEVEL variables with "String" type
+     */
+    static final Fact<IntSet> STRING_VARIABLES = new Fact<>("stringVariableSet", AnalysisSession::loadStringVariableSet);
+    /**
+     * ids of the names of all the methods declared in the file
+     */
+    static final Fact<IntSet> DEFINED_METHODS = new Fact<>("definedMethodSet", AnalysisSession::loadDefinedMethodSet);
+
+    private final CompilationUnit compilationUnit;
+    private final String path;
+    private final List<Finding> findings = new ArrayList<>();
+    private final SymbolTable symbolTable = new SymbolTable();
+    private final Map<Fact<?>, Object> facts = new HashMap<>();
+    private final boolean isVerboseMode;
+    private final PrintStream out;
+    private Deadline deadline;
+
+    /**
+     * Parse the source code for later inspection
+     * @param sourceCodePath path to the source code to be inspected
+     * @param isVerboseMode print the AST and the loaded names
+     * @param out stream that receives the verbose messages of this session
+     * @throws Exception capture FileNoFound error
+     */
+    AnalysisSession(final String sourceCodePath, final boolean isVerboseMode, final PrintStream out) throws Exception {
+        this(SOURCE_PARSER.parse(Paths.get(sourceCodePath)), sourceCodePath, isVerboseMode, out);
+    }
+
+    /**
+     * Start a session on an already parsed compilationUnit
+     * @param compilationUnit compilationUnit of the source code to be inspected
+     * @param path path of the source code, used in the findings
+     * @param isVerboseMode print the AST and the loaded names
+     * @param out stream that receives the verbose messages of this session
+     */
+    AnalysisSession(final CompilationUnit compilationUnit, final String path, final boolean isVerboseMode, final PrintStream out) {
+        this.compilationUnit = compilationUnit;
+        this.path = path;
+        this.isVerboseMode = isVerboseMode;
+        this.out = out;
+        if (isVerboseMode) {
+            // print out the whole AST in YAML format, streamed node by node
+            printAst();
+        }
+    }
+
+    /**
+     * Compute stringVariableSet and definedMethodSet right away instead of on first use, e.g. to time them apart
+     * from the inspections. The single-pass detectors of DetectorTraversal collect what they need themselves.
+     */
+    void loadSets() {
+        get(STRING_VARIABLES);
+        get(DEFINED_METHODS);
+    }
+
+    /**
+     * @param fact a fact about the file of this session
+     * @return the fact, computed on the first call only
+     * @throws IllegalStateException if computing the fact needs the fact itself
+     */
+    <T> T get(final Fact<T> fact) {
+        Object value = facts.get(fact);
+        if (value == COMPUTING) {
+            throw new IllegalStateException("fact " + fact.getName() + " depends on itself");
+        }
+        if (value == null) {
+            // not computeIfAbsent: a fact may ask for other facts while it is computed
+            facts.put(fact, COMPUTING);
+            try {
+                value = fact.computeFor(this);
+            } finally {
+                facts.remove(fact);
+            }
+            facts.put(fact, value);
+        }
+        @SuppressWarnings("unchecked")
+        T typedValue = (T) value;
+        return typedValue;
+    }
+
+    CompilationUnit getCompilationUnit() {
+        return compilationUnit;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * Record a bug found in this file; nothing is printed, the owner of the session decides where findings go
+     * @param ruleId name of the detector reporting the bug
+     * @param node the offending code, giving the range and the snippet of the finding
+     * @param message description of the bug
+     */
+    void report(final String ruleId, final Node node, final String message) {
+        // a method is summed up by its declaration, its body is not part of the bug
+        String snippet = node instanceof CallableDeclaration ? ((CallableDeclaration<?>) node).getDeclarationAsString() : node.toString();
+        findings.add(new Finding(ruleId, path, node.getRange().orElse(null), message, snippet));
+    }
+
+    /**
+     * @return the findings reported so far, in reporting order
+     */
+    List<Finding> getFindings() {
+        return Collections.unmodifiableList(findings);
+    }
+
+    /**
+     * @return names interned in this session, giving the ids of the name sets
+     */
+    SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    /**
+     * @param expression any expression, e.g. an operand of a comparison
+     * @return the id of the name if the expression is a plain name interned in this session, SymbolTable.NO_ID otherwise
+     */
+    int lookupName(final Expression expression) {
+        // the identifier is kept by the node, no need to print the expression
+        return expression.isNameExpr() ? symbolTable.lookup(expression.asNameExpr().getNameAsString()) : SymbolTable.NO_ID;
+    }
+
+    /**
+     * @return ids of the names of the CLASS-LEVEL variables with "String" type, not to be modified
+     */
+    IntSet getStringVariableSet() {
+        return get(STRING_VARIABLES);
+    }
+
+    /**
+     * @return ids of the names of all the methods declared in the file, not to be modified
+     */
+    IntSet getDefinedMethodSet() {
+        return get(DEFINED_METHODS);
+    }
+
+    /**
+     * @param deadline time budget of the inspections of this session, checked by checkDeadline
+     */
+    void setDeadline(final Deadline deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Checkpoint of long running inspections
+     * @throws FileTimeoutException if the time budget of the session is spent
+     */
+    void checkDeadline() {
+        if (deadline != null) {
+            deadline.check();
+        }
+    }
+
+    boolean isVerboseMode() {
+        return isVerboseMode;
+    }
+
+    PrintStream getOut() {
+        return out;
+    }
+
+    private void printAst() {
+        // out is not closed: it belongs to the caller
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out));
+        try {
+            new YamlAstWriter(true).write(compilationUnit, writer);
+            writer.write(System.lineSeparator());
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Initialization function for loading stringVariableSet
+     */
+    private IntSet loadStringVariableSet() {
+        IntSet stringVariableSet = new IntSet();
+        compilationUnit.findAll(FieldDeclaration.class).forEach(field -> field.getVariables().forEach(variable -> {
+            // search all CLASS-LEVEL variables with "String" type
+            if (variable.getType().toString().equals("String")) {
+                stringVariableSet.add(symbolTable.intern(variable.getNameAsString()));
+                if (isVerboseMode) {
+                    out.println("====== New String variable loaded: " + variable.getNameAsString() + " ======");
+                }
+            }
+        }));
+        return stringVariableSet;
+    }
+
+    /**
+     * Initialization function for loading definedMethodSet
+     */
+    private IntSet loadDefinedMethodSet() {
+        IntSet definedMethodSet = new IntSet();
+        // visit and print the methods names
+        new MethodVisitor().visit(compilationUnit, definedMethodSet);
+        return definedMethodSet;
+    }
+
+    /**
+     * Simple visitor implementation for visiting MethodDeclaration nodes
+     */
+    private class MethodVisitor extends VoidVisitorAdapter<IntSet> {
+        @Override
+        public void visit(MethodDeclaration md, IntSet definedMethodSet) {
+            definedMethodSet.add(symbolTable.intern(md.getNameAsString()));
+            if (isVerboseMode) {
+                out.println("====== New method name loaded: " + md.getNameAsString() + " ======");
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ApproximateLiteralIndex is the bounded-memory LiteralIndex, for code bases too large to index every distinct
+ * literal. During the scan, the literals only count the files they appear in, in a CountMinSketch. A second pass
+ * over the files then indexes the candidate literals, the ones the sketch saw in at least two files, in an exact
+ * ProjectLiteralIndex, which drops the false candidates when reporting. The paths of the files to be read again
+ * are kept as well, and take their share of the memory ceiling before any candidate does.
+ * The sketch never underestimates, so no duplicated literal is missed by the first pass: the only false negatives
+ * are the occurrences dropped once the exact index reaches its share of the memory ceiling, and they are counted.
+ * A literal of a single file becomes a false candidate only if it collides with another literal in every row, the
+ * rows being hashed independently, about (1 - e^(-n/w))^4 for n literals per file summed over the files and w
+ * counters per row, e.g. under 0.1% for 100,000 file literals in the default 16 MB. False candidates cost memory in
+ * the second pass, never findings.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class ApproximateLiteralIndex implements LiteralIndex {
+    // an occurrence, its queue node and its range, plus the chars of the literal as if each one were new
+    private static final int OCCURRENCE_BYTES = 160;
+    // the path, its String and its slot in the list
+    private static final int PATH_BYTES = 56;
+
+    private final CountMinSketch sketch;
+    private final ProjectLiteralIndex candidateIndex = new ProjectLiteralIndex();
+    private final Queue<String> inspectedPaths = new ConcurrentLinkedQueue<>();
+    private final long indexMemoryBytes;
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong droppedOccurrences = new AtomicLong();
+
+    /**
+     * @param memoryCeilingBytes memory of the sketch and of the exact index of the candidates, half each
+     */
+    ApproximateLiteralIndex(final long memoryCeilingBytes) {
+        this.sketch = new CountMinSketch(memoryCeilingBytes / 2, 2);
+        this.indexMemoryBytes = memoryCeilingBytes - sketch.getMemoryBytes();
+    }
+
+    /**
+     * First pass: count every distinct literal of the file once
+     * @param path path of the inspected file
+     * @param literals string literals of the file
+     */
+    @Override
+    public void add(final String path, final Collection<StringLiteralExpr> literals) {
+        Set<String> values = new HashSet<>();
+        for (StringLiteralExpr literal : literals) {
+            if (values.add(literal.asString())) {
+                sketch.add(literal.asString());
+            }
+        }
+    }
+
+    /**
+     * Called once the first pass is done with a file, which then takes part in the second pass.
+     * The paths are always kept, even over the memory ceiling: leaving a file out would drop all of its candidates.
+     * @param path path of a file inspected without failure
+     */
+    void addInspectedPath(final String path) {
+        usedBytes.addAndGet(PATH_BYTES + 2L * path.length());
+        inspectedPaths.add(path);
+    }
+
+    /**
+     * @return paths of the files to be read again by the second pass, in the order they were added
+     */
+    List<String> getInspectedPaths() {
+        return new ArrayList<>(inspectedPaths);
+    }
+
+    /**
+     * Second pass: index exactly the literals of the file that the sketch saw in at least two files
+     * @param path path of the inspected file
+     * @param literals string literals of the file
+     */
+    void addCandidates(final String path, final Collection<StringLiteralExpr> literals) {
+        List<StringLiteralExpr> candidates = new ArrayList<>();
+        for (StringLiteralExpr literal : literals) {
+            String value = literal.asString();
+            if (sketch.estimate(value) < 2) {
+                continue;
+            }
+            long bytes = OCCURRENCE_BYTES + 2L * value.length();
+            if (usedBytes.addAndGet(bytes) > indexMemoryBytes) {
+                usedBytes.addAndGet(-bytes);
+                droppedOccurrences.incrementAndGet();
+                continue;
+            }
+            candidates.add(literal);
+        }
+        candidateIndex.add(path, candidates);
+    }
+
+    /**
+     * @return number of distinct candidate literals indexed by the second pass so far
+     */
+    @Override
+    public int size() {
+        return candidateIndex.size();
+    }
+
+    @Override
+    public List<Finding> getDuplicatedLiterals() {
+        return candidateIndex.getDuplicatedLiterals();
+    }
+
+    CountMinSketch getSketch() {
+        return sketch;
+    }
+
+    /**
+     * @return number of candidate occurrences left out of the exact index by the memory ceiling
+     */
+    long getDroppedOccurrences() {
+        return droppedOccurrences.get();
+    }
+}
@@ -0,0 +1,136 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * AsyncReportWriter hands the reports to another FindingSink on a background thread. Calls only queue
+ * the record, the writer thread takes whatever has piled up in one batch, writes it and flushes once per
+ * batch, so a slow console or disk never holds up the caller. Records are written in the order they came in.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class AsyncReportWriter implements FindingSink {
+    private static final int QUEUE_CAPACITY = 16384;
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final Consumer<FindingSink> END = sink -> { };
+
+    private final FindingSink target;
+    private final BlockingQueue<Consumer<FindingSink>> records = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private volatile RuntimeException failure;
+    private boolean closed;
+
+    /**
+     * @param target sink receiving the records on the writer thread, closed by close()
+     */
+    AsyncReportWriter(final FindingSink target) {
+        this.target = target;
+        this.writer = new Thread(this::write, "report-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void beginFile(final String path) {
+        enqueue(sink -> sink.beginFile(path));
+    }
+
+    @Override
+    public void finding(final Finding finding) {
+        enqueue(sink -> sink.finding(finding));
+    }
+
+    @Override
+    public void note(final String text) {
+        enqueue(sink -> sink.note(text));
+    }
+
+    /**
+     * Records are flushed batch by batch anyway, this only rethrows a write failure seen so far
+     */
+    @Override
+    public void flush() {
+        checkFailure();
+    }
+
+    /**
+     * Wait until every queued record has been written, then close the target
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            records.put(END);
+            writer.join();
+        } catch (InterruptedException e) {
+            writer.interrupt();
+            Thread.currentThread().interrupt();
+        }
+        try {
+            target.close();
+        } finally {
+            checkFailure();
+        }
+    }
+
+    private void enqueue(final Consumer<FindingSink> record) {
+        checkFailure();
+        if (closed) {
+            throw new IllegalStateException("the report writer is closed");
+        }
+        try {
+            // blocks only when the writer is QUEUE_CAPACITY records behind
+            records.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while queuing a report record", e);
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writer thread: drain the queue batch by batch until END
+     */
+    private void write() {
+        List<Consumer<FindingSink>> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        try {
+            while (true) {
+                batch.add(records.take());
+                records.drainTo(batch, MAX_BATCH_SIZE - 1);
+                for (Consumer<FindingSink> record : batch) {
+                    if (record == END) {
+                        writeSafely(FindingSink::flush);
+                        return;
+                    }
+                    writeSafely(record);
+                }
+                batch.clear();
+                writeSafely(FindingSink::flush);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeSafely(final Consumer<FindingSink> record) {
+        // after a failure the records are dropped, but the queue keeps draining so that close() never blocks
+        if (failure != null) {
+            return;
+        }
+        try {
+            record.accept(target);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+    }
+}
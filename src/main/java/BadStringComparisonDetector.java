@@ -0,0 +1,72 @@
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.expr.BinaryExpr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Single-pass version of MyBugFinder.detectBadStringComparison.
+ * Fields may be declared after the comparisons using them, so the "==" and "!=" expressions are
+ * only collected during the walk and checked against the CLASS-LEVEL String variables at the end.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class BadStringComparisonDetector implements Detector {
+    static final String NAME = "BadStringComparison";
+    /**
+     * operators comparing references, checked by enum identity instead of their text
+     */
+    static final Set<BinaryExpr.Operator> EQUALITY_OPERATORS = EnumSet.of(BinaryExpr.Operator.EQUALS, BinaryExpr.Operator.NOT_EQUALS);
+
+    private final List<String> stringVariables = new ArrayList<>();
+    private final List<BinaryExpr> comparisons = new ArrayList<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<Class<? extends Node>> getNodeTypes() {
+        return Arrays.asList(FieldDeclaration.class, BinaryExpr.class);
+    }
+
+    @Override
+    public void visit(Node node) {
+        if (node instanceof FieldDeclaration) {
+            ((FieldDeclaration) node).getVariables().forEach(variable -> {
+                // search all CLASS-LEVEL variables with "String" type
+                if (variable.getType().toString().equals("String")) {
+                    stringVariables.add(variable.getNameAsString());
+                }
+            });
+        } else {
+            BinaryExpr be = (BinaryExpr) node;
+            // check if operator is "==" or "!="
+            if (EQUALITY_OPERATORS.contains(be.getOperator())) {
+                comparisons.add(be);
+            }
+        }
+    }
+
+    @Override
+    public boolean finish(AnalysisSession session) {
+        IntSet stringVariableSet = new IntSet();
+        for (String stringVariable : stringVariables) {
+            stringVariableSet.add(session.getSymbolTable().intern(stringVariable));
+        }
+        boolean goodStringComparison = true;
+        for (BinaryExpr be : comparisons) {
+            // check if left and right operands are String type
+            if (stringVariableSet.contains(session.lookupName(be.getLeft())) && stringVariableSet.contains(session.lookupName(be.getRight()))) {
+                goodStringComparison = false;
+                session.report(NAME, be, "Bad String comparison captured: [" + be.toString() + "]");
+            }
+        }
+        return goodStringComparison;
+    }
+}
@@ -0,0 +1,537 @@
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.Problem;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.google.common.cache.CacheStats;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * BugFinderEngine analyzes a batch of .java files through a pipeline of three stages, each with its own
+ * thread budget: reading the files from disk, parsing them with JavaParser, and running the detectors.
+ * The stages are connected by bounded queues, so slow disk reads overlap with parsing and a slow stage
+ * holds back the ones before it. Every file gets its own AnalysisSession collecting its findings, and the
+ * reports are merged back in input order into a FindingSink, so the output is the same however many threads run.
+ * A file that cannot be read, parsed or inspected only fails its own report; the run goes on until the failure
+ * budget of EngineOptions is spent, and ends with a summary of the analyzed and the failed files.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class BugFinderEngine {
+    private static final int QUEUE_CAPACITY_PER_THREAD = 2;
+    private static final int MAX_IN_FLIGHT_PER_THREAD = 4;
+
+    private final EngineOptions options;
+    private final TypeResolution typeResolution;
+    private final LiteralIndex projectLiteralIndex;
+    private final ApproximateLiteralIndex approximateLiteralIndex;
+    private final TypeHierarchyIndex typeHierarchyIndex;
+    private final DetectorTraversal detectorTraversal;
+    private final SourceParser sourceParser;
+    private final SourceReader sourceReader = new SourceReader();
+    private final AnalysisCache analysisCache;
+    private final boolean scansLiterals;
+
+    /**
+     * @param workerCount thread budget of both the parse and the detect stages
+     * @throws IOException never, no cache directory is set
+     */
+    BugFinderEngine(final int workerCount) throws IOException {
+        this(new EngineOptions().setWorkers(workerCount));
+    }
+
+    /**
+     * @param options thread budgets and modes of the engine
+     * @throws IOException if the cache directory cannot be created
+     * @throws IllegalArgumentException if a project-wide mode is combined with the multi-pass mode or the cache,
+     *                                  or if an unknown rule is selected
+     */
+    BugFinderEngine(final EngineOptions options) throws IOException {
+        this(options, Collections.emptyList());
+    }
+
+    /**
+     * @param options thread budgets and modes of the engine
+     * @param extraDetectorFactories detectors run on every file next to the selected rules, in single-pass mode
+     * @throws IOException if the cache directory cannot be created
+     * @throws IllegalArgumentException if a project-wide mode is combined with the multi-pass mode or the cache,
+     *                                  or if an unknown rule is selected
+     */
+    BugFinderEngine(final EngineOptions options, final List<Supplier<? extends Detector>> extraDetectorFactories) throws IOException {
+        this.options = options;
+        if (options.isResolvedMode() || options.isProjectLiteralMode() || options.isProjectHierarchyMode()) {
+            if (options.isMultiPassMode()) {
+                throw new IllegalArgumentException("the project-wide modes only apply to the single-pass detectors");
+            }
+            // the report of a file depends on the other files, it cannot be cached on its content alone
+            if (options.getCacheDirectory() != null) {
+                throw new IllegalArgumentException("the project-wide modes cannot use the analysis cache");
+            }
+        }
+        this.typeResolution = options.isResolvedMode() ? new TypeResolution(options.getSourceRoots(), options.getTypeCacheSize()) : null;
+        this.approximateLiteralIndex = options.isProjectLiteralMode() && options.isApproximateLiteralMode()
+                ? new ApproximateLiteralIndex(options.getLiteralMemoryCeiling()) : null;
+        this.projectLiteralIndex = approximateLiteralIndex != null ? approximateLiteralIndex
+                : options.isProjectLiteralMode() ? new ProjectLiteralIndex() : null;
+        this.typeHierarchyIndex = options.isProjectHierarchyMode() ? new TypeHierarchyIndex() : null;
+        List<Supplier<? extends Detector>> detectorFactories = new ArrayList<>(DetectorTraversal.select(
+                DetectorTraversal.detectors(typeResolution, projectLiteralIndex, typeHierarchyIndex), options.getRules()));
+        detectorFactories.addAll(extraDetectorFactories);
+        this.detectorTraversal = new DetectorTraversal(detectorFactories);
+        // the duplicated literals alone need no AST, only the tokens
+        this.scansLiterals = options.isLiteralScannerEnabled() && !options.isMultiPassMode() && projectLiteralIndex == null
+                && extraDetectorFactories.isEmpty()
+                && Collections.singleton(DuplicatedStringLiteralDetector.NAME).equals(options.getRules());
+        // comments are attached to the nodes only if a detector reads them, the multi-pass inspections never do
+        this.sourceParser = new SourceParser(!options.isMultiPassMode() && detectorTraversal.readsComments());
+        this.analysisCache = options.getCacheDirectory() == null ? null
+                : new AnalysisCache(options.getCacheDirectory(), detectorSetVersion());
+    }
+
+    /**
+     * Analyze all the given files and print their reports in the order of javaFilesPathList
+     * @param javaFilesPathList paths of the .java files to be inspected
+     * @param out stream that receives the merged reports in text format
+     * @return one report per file, in the order of javaFilesPathList
+     * @throws Exception when more files fail than the failure budget allows, or when the paths cannot be listed
+     */
+    List<FileReport> analyze(final List<String> javaFilesPathList, final PrintStream out) throws Exception {
+        List<FileReport> reports = new ArrayList<>(javaFilesPathList.size());
+        try (FindingSink findingSink = new AsyncReportWriter(
+                new TextReportFormat(new PrintWriter(new BufferedWriter(new OutputStreamWriter(out)))))) {
+            analyze(javaFilesPathList.iterator(), findingSink, reports::add);
+        }
+        return reports;
+    }
+
+    /**
+     * Analyze the files as their paths arrive and print their reports in arrival order.
+     * Only a few files per thread are in flight, so memory stays bounded however many paths come in.
+     * @param javaFilesPaths paths of the .java files to be inspected, e.g. a JavaFileDiscovery still walking the tree
+     * @param findingSink receives the merged reports, it is neither flushed nor closed
+     * @param reportConsumer receives every report once it has been handed to findingSink
+     * @throws Exception when more files fail than the failure budget allows, or when the paths cannot be listed
+     */
+    void analyze(final Iterator<String> javaFilesPaths, final FindingSink findingSink, final Consumer<FileReport> reportConsumer)
+            throws Exception {
+        int readThreads = options.getReadThreads();
+        int parseThreads = options.getParseThreads();
+        int detectThreads = options.getDetectThreads();
+        BlockingQueue<FileTask> readQueue = new ArrayBlockingQueue<>(readThreads * QUEUE_CAPACITY_PER_THREAD);
+        BlockingQueue<FileTask> parseQueue = new ArrayBlockingQueue<>(parseThreads * QUEUE_CAPACITY_PER_THREAD);
+        BlockingQueue<FileTask> detectQueue = new ArrayBlockingQueue<>(detectThreads * QUEUE_CAPACITY_PER_THREAD);
+        // bounded by inFlight below
+        BlockingQueue<FileTask> resultQueue = new LinkedBlockingQueue<>();
+        Semaphore inFlight = new Semaphore((readThreads + parseThreads + detectThreads) * MAX_IN_FLIGHT_PER_THREAD);
+
+        List<Thread> threads = new ArrayList<>();
+        try {
+            Watchdog watchdog = options.getFileTimeout() > 0 ? new Watchdog(options.getFileTimeout(), options.getClock()) : null;
+            if (watchdog != null) {
+                watchdog.start(threads);
+            }
+            if (typeResolution != null && options.getTypeCacheFile() != null) {
+                startWarmUp(TypeResolution.readTypeNames(options.getTypeCacheFile()), threads);
+            }
+            new PipelineStage("read", readThreads, readQueue, parseQueue, this::read).start(threads);
+            new PipelineStage("parse", parseThreads, parseQueue, detectQueue, task -> parse(task, watchdog)).start(threads);
+            new PipelineStage("detect", detectThreads, detectQueue, resultQueue, this::detect).start(threads);
+            Exception[] inputFailure = new Exception[1];
+            Thread feeder = new Thread(() -> feed(javaFilesPaths, readQueue, inFlight, inputFailure), "feed");
+            feeder.setDaemon(true);
+            threads.add(feeder);
+            feeder.start();
+
+            // merge in input order: hand over every report whose predecessors are all done
+            Map<Long, FileTask> pending = new HashMap<>();
+            long nextSequence = 0;
+            RunSummary summary = new RunSummary(options.getSlowestFileCount());
+            FileTask task;
+            while ((task = resultQueue.take()) != FileTask.END) {
+                pending.put(task.sequence, task);
+                while ((task = pending.remove(nextSequence)) != null) {
+                    nextSequence++;
+                    inFlight.release();
+                    if (task.deadline != null) {
+                        watchdog.unwatch(task.deadline);
+                    }
+                    FileReport report = task.failure == null ? task.report
+                            : FileReport.failed(task.path, task.failure, task.sizeBytes, task.readNanos, task.parseNanos, task.traversalNanos);
+                    writeReport(report, findingSink);
+                    summary.add(report);
+                    reportConsumer.accept(report);
+                    if (approximateLiteralIndex != null && !report.isFailed()) {
+                        // only the files inspected by the first pass take part in the second one
+                        approximateLiteralIndex.addInspectedPath(report.getPath());
+                    }
+                    if (summary.getFailedFiles() > options.getFailureBudget()) {
+                        writeSummary(summary, findingSink);
+                        throw new IllegalStateException("more than " + options.getFailureBudget() + " files failed, last one: "
+                                + task.path + ": " + describe(task.failure), task.failure);
+                    }
+                }
+            }
+            feeder.join();
+            if (typeHierarchyIndex != null) {
+                // every type has been added, the hierarchy is resolved once for the whole run
+                typeHierarchyIndex.complete();
+                for (Finding finding : typeHierarchyIndex.getCloneableFindings()) {
+                    findingSink.finding(finding);
+                }
+            }
+            if (approximateLiteralIndex != null) {
+                collectCandidates(approximateLiteralIndex.getInspectedPaths(), threads, summary, findingSink);
+            }
+            if (projectLiteralIndex != null) {
+                // every file has been inspected, the index is complete
+                for (Finding finding : projectLiteralIndex.getDuplicatedLiterals()) {
+                    findingSink.finding(finding);
+                }
+            }
+            writeSummary(summary, findingSink);
+            if (typeResolution != null && options.getTypeCacheFile() != null) {
+                typeResolution.writeTypeNames(options.getTypeCacheFile());
+            }
+            if (inputFailure[0] != null) {
+                throw inputFailure[0];
+            }
+        } finally {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Second pass of the approximate literal mode: read and parse the files again, in parallel, and index exactly
+     * the literals the sketch of the first pass saw in several files. A file failing now is left out of the index,
+     * and counts against the failure budget.
+     */
+    private void collectCandidates(final List<String> paths, final List<Thread> threads, final RunSummary summary,
+                                   final FindingSink findingSink) throws InterruptedException {
+        int parseThreads = options.getParseThreads();
+        BlockingQueue<FileTask> candidateQueue = new ArrayBlockingQueue<>(parseThreads * QUEUE_CAPACITY_PER_THREAD);
+        // only the paths of the tasks are left once they are done
+        BlockingQueue<FileTask> doneQueue = new LinkedBlockingQueue<>();
+        new PipelineStage("candidates", parseThreads, candidateQueue, doneQueue, this::collectCandidates).start(threads);
+        for (int i = 0; i < paths.size(); i++) {
+            candidateQueue.put(new FileTask(i, paths.get(i)));
+        }
+        candidateQueue.put(FileTask.END);
+        FileTask task;
+        while ((task = doneQueue.take()) != FileTask.END) {
+            if (task.failure == null) {
+                continue;
+            }
+            findingSink.note("Second literal pass failed: " + task.path + ": " + describe(task.failure));
+            summary.addSecondPassFailure();
+            if (summary.getFailedFiles() > options.getFailureBudget()) {
+                writeSummary(summary, findingSink);
+                throw new IllegalStateException("more than " + options.getFailureBudget() + " files failed, last one: "
+                        + task.path + ": " + describe(task.failure), task.failure);
+            }
+        }
+    }
+
+    private void collectCandidates(final FileTask task) throws IOException {
+        ParseResult<CompilationUnit> result = sourceParser.parseRecovering(sourceReader.decode(sourceReader.read(Paths.get(task.path))));
+        if (!result.getResult().isPresent()) {
+            throw new ParseProblemException(result.getProblems());
+        }
+        approximateLiteralIndex.addCandidates(task.path, result.getResult().get().findAll(StringLiteralExpr.class,
+                DuplicatedStringLiteralDetector::isInFieldVariableOrMethod));
+    }
+
+    /**
+     * Look up the types found by the previous run while the first files are read and parsed
+     */
+    private void startWarmUp(final List<String> typeNames, final List<Thread> threads) {
+        Thread warmUp = new Thread(() -> typeResolution.warmUp(typeNames), "type-warm-up");
+        warmUp.setDaemon(true);
+        threads.add(warmUp);
+        warmUp.start();
+    }
+
+    /**
+     * Feed the paths into the read stage, numbering them for the merge, then end the pipeline
+     */
+    private static void feed(final Iterator<String> javaFilesPaths, final BlockingQueue<FileTask> readQueue,
+                             final Semaphore inFlight, final Exception[] inputFailure) {
+        try {
+            try {
+                long sequence = 0;
+                while (javaFilesPaths.hasNext()) {
+                    String javaFilePath = javaFilesPaths.next();
+                    inFlight.acquire();
+                    readQueue.put(new FileTask(sequence++, javaFilePath));
+                }
+            } catch (RuntimeException e) {
+                // e.g. the discovery could not list a directory: the files fed so far are still reported
+                inputFailure[0] = e;
+            }
+            readQueue.put(FileTask.END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Read stage: load the source code of the file, or its whole report when the content is in the cache
+     */
+    private void read(final FileTask task) throws Exception {
+        long start = options.getClock().getAsLong();
+        ByteBuffer content = sourceReader.read(Paths.get(task.path));
+        task.readNanos = options.getClock().getAsLong() - start;
+        task.sizeBytes = content.remaining();
+        if (analysisCache != null) {
+            task.cacheKey = analysisCache.keyOf(content.duplicate());
+            task.report = analysisCache.lookup(task.cacheKey, task.path, task.sizeBytes, task.readNanos);
+            if (task.report != null) {
+                return;
+            }
+        }
+        // decoding is CPU work, it is counted as parse time so that the read time only measures the disk
+        start = options.getClock().getAsLong();
+        task.source = sourceReader.decode(content);
+        task.parseNanos = options.getClock().getAsLong() - start;
+    }
+
+    /**
+     * Parse stage: build the compilationUnit of the file, possibly a partial one when the parser recovered from errors.
+     * With a watchdog, the time budget of the file starts here, the literal scan included.
+     */
+    private void parse(final FileTask task, final Watchdog watchdog) {
+        if (watchdog != null) {
+            task.deadline = watchdog.watch();
+        }
+        if (scansLiterals && scanLiterals(task)) {
+            return;
+        }
+        long start = options.getClock().getAsLong();
+        ParseResult<CompilationUnit> result;
+        if (task.deadline == null) {
+            result = sourceParser.parseRecovering(task.source);
+        } else {
+            task.deadline.start();
+            try {
+                result = sourceParser.parseRecovering(task.deadline.guard(new StringReader(task.source)));
+            } finally {
+                task.deadline.stop();
+            }
+        }
+        task.source = null;
+        // counted before the check, the slowest files show where a timed out file spent its time
+        task.parseNanos += options.getClock().getAsLong() - start;
+        if (task.deadline != null) {
+            // JavaParser turns the FileTimeoutException of the guarded source into a parse problem
+            task.deadline.check();
+        }
+        if (!result.getResult().isPresent()) {
+            throw new ParseProblemException(result.getProblems());
+        }
+        task.compilationUnit = result.getResult().get();
+        task.parseProblems = new ArrayList<>(result.getProblems().size());
+        for (Problem problem : result.getProblems()) {
+            task.parseProblems.add(firstLine(problem.getVerboseMessage()));
+        }
+    }
+
+    /**
+     * Parse stage when DuplicatedStringLiteral is the only inspection: the LiteralScanner finds the same findings from
+     * the tokens, several times faster than parsing, and the file skips the detect stage. A file the scanner does not
+     * understand, e.g. one that does not compile, is parsed and inspected as usual.
+     * @return true if the report of the file is done
+     */
+    private boolean scanLiterals(final FileTask task) {
+        long start = options.getClock().getAsLong();
+        List<Finding> findings;
+        if (task.deadline != null) {
+            task.deadline.start();
+        }
+        try {
+            findings = new LiteralScanner(task.path, task.source, task.deadline).scan();
+        } catch (IllegalStateException e) {
+            return false;
+        } finally {
+            task.parseNanos += options.getClock().getAsLong() - start;
+            if (task.deadline != null) {
+                task.deadline.stop();
+            }
+        }
+        if (task.deadline != null) {
+            task.deadline.check();
+        }
+        task.source = null;
+        task.report = new FileReport(task.path, findings, Collections.singletonMap(DuplicatedStringLiteralDetector.NAME, findings.isEmpty()),
+                Collections.emptyList(), task.sizeBytes, task.readNanos, task.parseNanos, 0);
+        if (analysisCache != null) {
+            analysisCache.store(task.cacheKey, task.report);
+        }
+        return true;
+    }
+
+    /**
+     * Detect stage: run all the inspections on the file, collecting the findings in its session
+     */
+    private void detect(final FileTask task) throws Exception {
+        // not verbose, nothing is printed on System.out
+        AnalysisSession session = new AnalysisSession(task.compilationUnit, task.path, false, System.out);
+        task.compilationUnit = null;
+        session.setDeadline(task.deadline);
+
+        long start = options.getClock().getAsLong();
+        Map<String, Boolean> results;
+        if (task.deadline != null) {
+            task.deadline.start();
+        }
+        try {
+            if (options.isMultiPassMode()) {
+                // the inspections of MyBugFinder can only be stopped in between, each loads the sets it needs
+                results = new LinkedHashMap<>();
+                if (options.isRuleEnabled(BadStringComparisonDetector.NAME)) {
+                    session.checkDeadline();
+                    results.put(BadStringComparisonDetector.NAME, MyBugFinder.detectBadStringComparison(session));
+                }
+                if (options.isRuleEnabled(CloneableDetector.NAME)) {
+                    session.checkDeadline();
+                    results.put(CloneableDetector.NAME, MyBugFinder.implementsCloneableWhenDefinesClone(session));
+                }
+                if (options.isRuleEnabled(DuplicatedStringLiteralDetector.NAME)) {
+                    session.checkDeadline();
+                    results.put(DuplicatedStringLiteralDetector.NAME, MyBugFinder.checkStringLiteral(session));
+                }
+            } else {
+                results = detectorTraversal.run(session);
+            }
+        } finally {
+            task.traversalNanos = options.getClock().getAsLong() - start;
+            if (task.deadline != null) {
+                task.deadline.stop();
+            }
+        }
+        if (task.deadline != null) {
+            // finish() of a detector, and the last multi-pass inspection, have no checkpoint of their own
+            task.deadline.check();
+        }
+
+        task.report = new FileReport(task.path, session.getFindings(), results, task.parseProblems,
+                task.sizeBytes, task.readNanos, task.parseNanos, task.traversalNanos);
+        // a partial report is rare enough to be worth computing again
+        if (analysisCache != null && task.parseProblems.isEmpty()) {
+            analysisCache.store(task.cacheKey, task.report);
+        }
+    }
+
+    /**
+     * The reports depend on the code of the detectors, of the session and of the engine, and on the inspection mode
+     */
+    private String detectorSetVersion() {
+        List<Class<?>> detectorClasses = new ArrayList<>();
+        if (options.isMultiPassMode()) {
+            detectorClasses.add(MyBugFinder.class);
+        } else {
+            detectorClasses.add(DetectorTraversal.class);
+            detectorClasses.addAll(detectorTraversal.getDetectorClasses());
+        }
+        if (scansLiterals) {
+            detectorClasses.add(LiteralScanner.class);
+        }
+        // and on the helpers they share
+        detectorClasses.addAll(Arrays.asList(AnalysisSession.class, Fact.class, IntSet.class, SymbolTable.class, Finding.class,
+                SourceParser.class, BugFinderEngine.class));
+        String mode = options.isMultiPassMode() ? "multi-pass" : "single-pass";
+        // the multi-pass inspections are the same classes whatever the rules
+        return AnalysisCache.versionOf(options.getRules() == null ? mode : mode + " " + new TreeSet<>(options.getRules()), detectorClasses);
+    }
+
+    private void writeReport(final FileReport report, final FindingSink findingSink) {
+        findingSink.beginFile(report.getPath());
+        for (String parseProblem : report.getParseProblems()) {
+            findingSink.note("Recovered from parse error: " + parseProblem);
+        }
+        for (Finding finding : report.getFindings()) {
+            findingSink.finding(finding);
+        }
+        if (report.isTimedOut()) {
+            findingSink.note("Analysis timed out: " + report.getFailure().getMessage());
+        } else if (report.isFailed()) {
+            findingSink.note("Analysis failed: " + describe(report.getFailure()));
+        }
+        if (options.isTimingMode()) {
+            findingSink.note("Read time: " + toMillis(report.getReadNanos()) + " ms for " + report.getSizeBytes() + " bytes, parse time: " + toMillis(report.getParseNanos())
+                    + " ms, traversal time: " + toMillis(report.getTraversalNanos()) + " ms");
+        }
+    }
+
+    private void writeSummary(final RunSummary summary, final FindingSink findingSink) {
+        summary.write(findingSink, options.isTimingMode(), options.isMultiPassMode() ? "multi-pass" : "single-pass");
+        if (analysisCache != null) {
+            findingSink.note("Analysis cache: " + analysisCache.getHits() + " hits, " + analysisCache.getMisses() + " misses");
+            if (analysisCache.getWriteFailures() > 0) {
+                findingSink.note("Analysis cache: " + analysisCache.getWriteFailures() + " reports could not be stored, last error: "
+                        + analysisCache.getLastWriteFailure());
+            }
+        }
+        if (typeHierarchyIndex != null) {
+            findingSink.note("Type hierarchy index: " + typeHierarchyIndex.size() + " types, "
+                    + typeHierarchyIndex.getUnresolvedSupertypes() + " supertypes found neither in the scanned code nor in the JDK");
+        }
+        if (approximateLiteralIndex != null) {
+            CountMinSketch sketch = approximateLiteralIndex.getSketch();
+            findingSink.note("Approximate literal index: " + sketch.getDepth() + " x " + sketch.getWidth() + " sketch counters ("
+                    + sketch.getMemoryBytes() / 1024 + " KB), " + approximateLiteralIndex.size() + " candidate literals, "
+                    + approximateLiteralIndex.getDroppedOccurrences() + " occurrences dropped over the memory ceiling");
+        } else if (projectLiteralIndex != null) {
+            findingSink.note("Project literal index: " + projectLiteralIndex.size() + " distinct literals");
+        }
+        if (typeResolution != null) {
+            findingSink.note("Type resolution: " + typeResolution.getResolvedCount() + " operands resolved, "
+                    + typeResolution.getUnresolvedCount() + " unresolved");
+            CacheStats typeCacheStats = typeResolution.getTypeCacheStats();
+            findingSink.note("Type solver cache: " + typeCacheStats.hitCount() + " hits, " + typeCacheStats.missCount() + " misses, "
+                    + typeCacheStats.evictionCount() + " evictions");
+        }
+    }
+
+    /**
+     * @return a one line description of a failure, e.g. the first parse error
+     */
+    private static String describe(final Exception failure) {
+        if (failure instanceof ParseProblemException && !((ParseProblemException) failure).getProblems().isEmpty()) {
+            return "parse error " + firstLine(((ParseProblemException) failure).getProblems().get(0).getVerboseMessage());
+        }
+        return firstLine(failure.toString());
+    }
+
+    private static String firstLine(final String text) {
+        int end = text.indexOf('\n');
+        return (end < 0 ? text : text.substring(0, end)).trim();
+    }
+
+    private static String toMillis(final long nanos) {
+        return RunSummary.toMillis(nanos);
+    }
+}
@@ -0,0 +1,77 @@
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CachingTypeSolver keeps the types found by another TypeSolver in a concurrent cache bounded in size, shared by
+ * all the files and threads of a run. It becomes the root of the wrapped solver, so the lookups made while resolving
+ * the declarations themselves, e.g. the supertypes of a Joda-time class, go through the cache as well.
+ * The types that cannot be found are cached too: the combined solver tries many candidate names
+ * for every simple name, and most of them do not exist. The cache itself takes no lock, but the wrapped solvers
+ * are not thread-safe, e.g. the JavaParserTypeSolver parses the source files with a single JavaParser: the callers
+ * serialize the lookups, like TypeResolution does.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class CachingTypeSolver implements TypeSolver {
+    private final TypeSolver typeSolver;
+    private final Cache<String, SymbolReference<ResolvedReferenceTypeDeclaration>> cache;
+    private TypeSolver parent;
+
+    /**
+     * @param typeSolver solver looking up the types missing from the cache
+     * @param maximumSize number of type names kept, the least recently used ones are evicted first
+     */
+    CachingTypeSolver(final TypeSolver typeSolver, final long maximumSize) {
+        this.typeSolver = typeSolver;
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+        typeSolver.setParent(this);
+    }
+
+    @Override
+    public TypeSolver getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(TypeSolver parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        SymbolReference<ResolvedReferenceTypeDeclaration> reference = cache.getIfPresent(name);
+        if (reference == null) {
+            reference = typeSolver.tryToSolveType(name);
+            cache.put(name, reference);
+        }
+        return reference;
+    }
+
+    /**
+     * @return hit, miss and eviction counts of the cache since it was created
+     */
+    CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * @return the names of the cached types that were found, to warm up the cache of a later run
+     */
+    List<String> getSolvedNames() {
+        List<String> solvedNames = new ArrayList<>();
+        for (Map.Entry<String, SymbolReference<ResolvedReferenceTypeDeclaration>> entry : cache.asMap().entrySet()) {
+            if (entry.getValue().isSolved()) {
+                solvedNames.add(entry.getKey());
+            }
+        }
+        return solvedNames;
+    }
+}
@@ -0,0 +1,64 @@
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.nodeTypes.NodeWithImplements;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Single-pass version of MyBugFinder.implementsCloneableWhenDefinesClone.
+ * A clone() method counts when it is not nested inside another method, as in the definedMethodSet of AnalysisSession.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class CloneableDetector implements Detector {
+    static final String NAME = "NotImplementsCloneableWhenDefinesClone";
+
+    private MethodDeclaration cloneMethod;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<Class<? extends Node>> getNodeTypes() {
+        return Collections.singletonList(MethodDeclaration.class);
+    }
+
+    @Override
+    public void visit(Node node) {
+        if (((MethodDeclaration) node).getNameAsString().equals("clone")
+                && !node.findAncestor(MethodDeclaration.class).isPresent()) {
+            if (cloneMethod == null) {
+                cloneMethod = (MethodDeclaration) node;
+            }
+        }
+    }
+
+    @Override
+    public boolean finish(AnalysisSession session) {
+        // check if define clone() method
+        if (cloneMethod != null) {
+            TypeDeclaration<?> type = session.getCompilationUnit().getType(0);
+            // e.g. an enum implements interfaces too, an annotation cannot
+            List<ClassOrInterfaceType> implementedInterfaces = type instanceof NodeWithImplements
+                    ? ((NodeWithImplements<?>) type).getImplementedTypes() : Collections.emptyList();
+            // check if "Cloneable" interface gets implemented
+            for (ClassOrInterfaceType implementedInterface : implementedInterfaces) {
+                String implementedInterfaceName = implementedInterface.getNameAsString();
+                if (session.isVerboseMode()) {
+                    session.getOut().println("====== New interface found: " + implementedInterfaceName + " ======");
+                }
+                if (implementedInterfaceName.equals("Cloneable")) {
+                    return true;
+                }
+            }
+            session.report(NAME, cloneMethod, "New NotImplementsCloneableWhenDefinesClone bug found");
+            return false;
+        }
+        return true;    // if not define clone() method, directly return true
+    }
+}
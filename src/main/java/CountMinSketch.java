@@ -0,0 +1,88 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * CountMinSketch estimates how many times strings were added, in a fixed amount of memory whatever their number.
+ * Every string increments one counter in each of the rows, chosen by a different hash per row, derived from two
+ * independent hashes of the string, and its estimate is the smallest of its counters. Collisions only ever add to a counter, so the estimate is never below the real count.
+ * The counters are atomic, so any number of threads can add at once, and they stop at a small cap since only
+ * "seen at least that many times" is asked, which also keeps them from overflowing.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class CountMinSketch {
+    private static final int DEPTH = 4;
+    private static final int MIN_WIDTH = 64;
+    private static final int MAX_WIDTH = 1 << 26;
+
+    private final int cap;
+    private final int width;
+    private final AtomicIntegerArray counters;
+
+    /**
+     * @param memoryBytes memory the counters may take, rounded down to a power of two counters per row
+     * @param cap count above which the counters stop, the estimates are at most this
+     */
+    CountMinSketch(final long memoryBytes, final int cap) {
+        long maxWidth = Math.max(MIN_WIDTH, Math.min(MAX_WIDTH, memoryBytes / (DEPTH * Integer.BYTES)));
+        this.width = (int) Long.highestOneBit(maxWidth);
+        this.cap = cap;
+        this.counters = new AtomicIntegerArray(DEPTH * width);
+    }
+
+    /**
+     * @param item string seen once more
+     */
+    void add(final String item) {
+        int hash = item.hashCode();
+        int step = step(item);
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(row, hash, step);
+            // a race may take a counter one past the cap, it is only an upper bound
+            if (counters.get(index) < cap) {
+                counters.incrementAndGet(index);
+            }
+        }
+    }
+
+    /**
+     * @param item string to be looked up
+     * @return an upper bound of the number of times item was added, capped
+     */
+    int estimate(final String item) {
+        int hash = item.hashCode();
+        int step = step(item);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(indexOf(row, hash, step)));
+        }
+        return Math.min(estimate, cap);
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getDepth() {
+        return DEPTH;
+    }
+
+    long getMemoryBytes() {
+        return (long) DEPTH * width * Integer.BYTES;
+    }
+
+    /**
+     * the hash of each row is derived from String.hashCode() and this second hash, FNV-1a over the chars, independent
+     * of the first: strings with the same hashCode() still part in the other rows. Odd so that the rows differ
+     */
+    private static int step(final String item) {
+        int hash = 0x811C9DC5;
+        for (int i = 0; i < item.length(); i++) {
+            hash = (hash ^ item.charAt(i)) * 0x01000193;
+        }
+        return IntSet.mix(hash) | 1;
+    }
+
+    private int indexOf(final int row, final int hash, final int step) {
+        return row * width + (IntSet.mix(hash + row * step) & (width - 1));
+    }
+}
@@ -0,0 +1,95 @@
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.LongSupplier;
+
+/**
+ * Deadline is the time budget of a single file. Only the time a worker actually spends on the file counts,
+ * not the time it waits in the queues between two stages. The Watchdog marks the deadline as expired, and the
+ * worker gives up at its next checkpoint: a call to check(), e.g. for every node the detectors visit, or
+ * every time the parser pulls the next chunk of a guarded source.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class Deadline {
+    private final long budgetNanos;
+    private final LongSupplier clock;
+    // written by the worker, read by the watchdog
+    private volatile long spentNanos;
+    private volatile long runningSince;
+    private volatile boolean isRunning;
+    private volatile boolean isExpired;
+
+    /**
+     * @param budgetMillis time the file may take, in milliseconds
+     * @param clock nanosecond clock, e.g. System::nanoTime
+     */
+    Deadline(final long budgetMillis, final LongSupplier clock) {
+        this.budgetNanos = budgetMillis * 1_000_000;
+        this.clock = clock;
+    }
+
+    /**
+     * A worker starts working on the file
+     */
+    void start() {
+        runningSince = clock.getAsLong();
+        isRunning = true;
+    }
+
+    /**
+     * The worker is done with the file, for now. An overrun since the last look of the watchdog expires the deadline
+     * right away, so the check() after a stage never misses it.
+     */
+    void stop() {
+        isRunning = false;
+        spentNanos += clock.getAsLong() - runningSince;
+        expireIfOverdue(0);
+    }
+
+    /**
+     * Called by the watchdog: mark the deadline as expired once the budget is spent
+     * @param now current reading of the clock
+     * @return true if the deadline is expired
+     */
+    boolean expireIfOverdue(final long now) {
+        if (!isExpired && spentNanos + (isRunning ? now - runningSince : 0) > budgetNanos) {
+            isExpired = true;
+        }
+        return isExpired;
+    }
+
+    boolean isExpired() {
+        return isExpired;
+    }
+
+    /**
+     * Checkpoint of the worker
+     * @throws FileTimeoutException if the watchdog found the budget spent
+     */
+    void check() {
+        if (isExpired) {
+            throw new FileTimeoutException(budgetNanos / 1_000_000);
+        }
+    }
+
+    /**
+     * @param source source code handed to the parser
+     * @return source checking the deadline whenever the parser reads from it
+     */
+    Reader guard(final Reader source) {
+        return new FilterReader(source) {
+            @Override
+            public int read() throws IOException {
+                check();
+                return super.read();
+            }
+
+            @Override
+            public int read(final char[] buffer, final int offset, final int length) throws IOException {
+                check();
+                return super.read(buffer, offset, length);
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+import com.github.javaparser.ast.Node;
+
+import java.util.List;
+
+/**
+ * Detector is one bug inspection driven by DetectorTraversal. A new instance is created for every file:
+ * it subscribes to node types, receives the matching nodes while the compilationUnit is walked once,
+ * and reports its result when the walk is over.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+interface Detector {
+    /**
+     * @return name of the bug inspected by this detector
+     */
+    String getName();
+
+    /**
+     * @return node types this detector subscribes to, subclasses of them are delivered as well
+     */
+    List<Class<? extends Node>> getNodeTypes();
+
+    /**
+     * @return true if the detector looks at comments, which are otherwise not attached to the nodes when parsing
+     */
+    default boolean readsComments() {
+        return false;
+    }
+
+    /**
+     * Called for every node of a subscribed type, in document order
+     * @param node node matching one of getNodeTypes()
+     */
+    void visit(Node node);
+
+    /**
+     * Called once the whole compilationUnit has been visited
+     * @param session session of the inspected file, also receives the bug messages
+     * @return inspection result, false if a bug was found
+     */
+    boolean finish(AnalysisSession session);
+}
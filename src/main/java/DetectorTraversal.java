@@ -0,0 +1,159 @@
+import com.github.javaparser.ast.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * DetectorTraversal runs any number of detectors over a compilationUnit that is walked exactly once.
+ * Every node is handed to the detectors subscribed to its type, through a dispatch table keyed by node class.
+ * The table holds the positions of the subscribed detectors, so it is built once per node class and shared
+ * by all the files and threads, while the detectors themselves are created for every file.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class DetectorTraversal {
+    private static final int[] NO_SUBSCRIBERS = new int[0];
+
+    private final List<Supplier<? extends Detector>> detectorFactories;
+    private final List<List<Class<? extends Node>>> subscribedTypes = new ArrayList<>();
+    private final Map<Class<?>, int[]> dispatchTable = new ConcurrentHashMap<>();
+
+    /**
+     * @param detectorFactories create the detectors for one file, in the order their results are reported
+     */
+    DetectorTraversal(final List<Supplier<? extends Detector>> detectorFactories) {
+        this.detectorFactories = detectorFactories;
+        for (Supplier<? extends Detector> detectorFactory : detectorFactories) {
+            subscribedTypes.add(detectorFactory.get().getNodeTypes());
+        }
+    }
+
+    /**
+     * @return the three MyBugFinder inspections, in the order MyBugFinderForJoda has always run them
+     */
+    static List<Supplier<? extends Detector>> defaultDetectors() {
+        return detectors(null, null, null);
+    }
+
+    /**
+     * @param typeResolution type resolution shared by all the files of the run, or null to check the String
+     *                       comparisons against the field declarations
+     * @param projectLiteralIndex index of the literals of the whole run, or null to only check them within each file
+     * @param typeHierarchyIndex index of the types of the whole run, or null to only check the implemented interfaces
+     *                           of the first type of each file
+     * @return the three MyBugFinder inspections, in the order MyBugFinderForJoda has always run them
+     */
+    static List<Supplier<? extends Detector>> detectors(final TypeResolution typeResolution, final LiteralIndex projectLiteralIndex,
+                                                        final TypeHierarchyIndex typeHierarchyIndex) {
+        Supplier<? extends Detector> stringComparisonDetector = typeResolution == null ? BadStringComparisonDetector::new
+                : () -> new ResolvedStringComparisonDetector(typeResolution);
+        Supplier<? extends Detector> stringLiteralDetector = projectLiteralIndex == null ? DuplicatedStringLiteralDetector::new
+                : () -> new DuplicatedStringLiteralDetector(projectLiteralIndex);
+        Supplier<? extends Detector> cloneableDetector = typeHierarchyIndex == null ? CloneableDetector::new
+                : () -> new HierarchyCloneableDetector(typeHierarchyIndex);
+        return Arrays.asList(stringComparisonDetector, cloneableDetector, stringLiteralDetector);
+    }
+
+    /**
+     * @param detectorFactories create the detectors for one file
+     * @param rules names of the detectors to be kept, null to keep them all
+     * @return the factories of the selected detectors, in the same order
+     * @throws IllegalArgumentException if one of the rules is not the name of a detector
+     */
+    static List<Supplier<? extends Detector>> select(final List<Supplier<? extends Detector>> detectorFactories, final Set<String> rules) {
+        if (rules == null) {
+            return detectorFactories;
+        }
+        List<Supplier<? extends Detector>> selected = new ArrayList<>();
+        Set<String> names = new LinkedHashSet<>();
+        for (Supplier<? extends Detector> detectorFactory : detectorFactories) {
+            String name = detectorFactory.get().getName();
+            names.add(name);
+            if (rules.contains(name)) {
+                selected.add(detectorFactory);
+            }
+        }
+        for (String rule : rules) {
+            if (!names.contains(rule)) {
+                throw new IllegalArgumentException("unknown rule: " + rule + ", known rules: " + String.join(",", names));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * @return classes of the registered detectors, in registration order
+     */
+    List<Class<?>> getDetectorClasses() {
+        List<Class<?>> detectorClasses = new ArrayList<>(detectorFactories.size());
+        for (Supplier<? extends Detector> detectorFactory : detectorFactories) {
+            detectorClasses.add(detectorFactory.get().getClass());
+        }
+        return detectorClasses;
+    }
+
+    /**
+     * @return true if one of the registered detectors needs the comments attached to the nodes
+     */
+    boolean readsComments() {
+        for (Supplier<? extends Detector> detectorFactory : detectorFactories) {
+            if (detectorFactory.get().readsComments()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Walk the compilationUnit of the session once and collect the result of every detector
+     * @param session session of the file to be inspected
+     * @return inspection result of every detector by name, in registration order
+     */
+    Map<String, Boolean> run(final AnalysisSession session) {
+        Detector[] detectors = new Detector[detectorFactories.size()];
+        for (int i = 0; i < detectors.length; i++) {
+            detectors[i] = detectorFactories.get(i).get();
+        }
+
+        session.getCompilationUnit().walk(node -> {
+            session.checkDeadline();
+            int[] subscribers = dispatchTable.get(node.getClass());
+            if (subscribers == null) {
+                subscribers = dispatchTable.computeIfAbsent(node.getClass(), this::subscribersOf);
+            }
+            for (int subscriber : subscribers) {
+                detectors[subscriber].visit(node);
+            }
+        });
+
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        for (Detector detector : detectors) {
+            results.put(detector.getName(), detector.finish(session));
+        }
+        return results;
+    }
+
+    /**
+     * find the positions of the detectors subscribed to the given node class or to one of its superclasses
+     */
+    private int[] subscribersOf(final Class<?> nodeType) {
+        int[] subscribers = new int[subscribedTypes.size()];
+        int count = 0;
+        for (int i = 0; i < subscribedTypes.size(); i++) {
+            for (Class<? extends Node> subscribedType : subscribedTypes.get(i)) {
+                if (subscribedType.isAssignableFrom(nodeType)) {
+                    subscribers[count++] = i;
+                    break;
+                }
+            }
+        }
+        return count == 0 ? NO_SUBSCRIBERS : Arrays.copyOf(subscribers, count);
+    }
+}
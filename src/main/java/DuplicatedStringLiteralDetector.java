@@ -0,0 +1,120 @@
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Single-pass version of MyBugFinder.checkStringLiteral.
+ * Like the original, only literals inside field variables and method declarations are checked, and the literals of
+ * the field variables are checked before those of the methods, so the same occurrences are reported as duplicates.
+ * Each literal is seen once even when a method is nested inside another one.
+ * With a LiteralIndex, the checked literals are also handed to it once the file is done.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class DuplicatedStringLiteralDetector implements Detector {
+    static final String NAME = "DuplicatedStringLiteral";
+
+    private final LiteralIndex projectLiteralIndex;
+    private final Set<String> stringLiteralSet = new HashSet<>();
+    private final List<StringLiteralExpr> fieldLiterals = new ArrayList<>();
+    private final List<StringLiteralExpr> methodLiterals = new ArrayList<>();
+
+    DuplicatedStringLiteralDetector() {
+        this(null);
+    }
+
+    /**
+     * @param projectLiteralIndex index of the literals of the whole run, or null to only check within the file
+     */
+    DuplicatedStringLiteralDetector(final LiteralIndex projectLiteralIndex) {
+        this.projectLiteralIndex = projectLiteralIndex;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<Class<? extends Node>> getNodeTypes() {
+        return Collections.singletonList(StringLiteralExpr.class);
+    }
+
+    @Override
+    public void visit(Node node) {
+        if (isInFieldVariable(node)) {
+            fieldLiterals.add((StringLiteralExpr) node);
+        } else if (isInFieldVariableOrMethod(node)) {
+            methodLiterals.add((StringLiteralExpr) node);
+        }
+    }
+
+    @Override
+    public boolean finish(AnalysisSession session) {
+        boolean goodStringLiteral = true;
+        // the fields first, like the original
+        List<StringLiteralExpr> checkedLiterals = new ArrayList<>(fieldLiterals.size() + methodLiterals.size());
+        checkedLiterals.addAll(fieldLiterals);
+        checkedLiterals.addAll(methodLiterals);
+        for (StringLiteralExpr literal : checkedLiterals) {
+            // check if the string literal appeared
+            if (!stringLiteralSet.add(literal.asString())) {
+                goodStringLiteral = false;
+                session.report(NAME, literal, "duplicated string literal captured: [\"" + literal.asString() + "\"]");
+            }
+        }
+        if (projectLiteralIndex != null) {
+            // one batch per file
+            projectLiteralIndex.add(session.getPath(), checkedLiterals);
+        }
+        return goodStringLiteral;
+    }
+
+    /**
+     * check if the node is part of a field variable, possibly of a field nested in a method
+     */
+    static boolean isInFieldVariable(Node node) {
+        Optional<Node> parent = node.getParentNode();
+        Node child = node;
+        while (parent.isPresent()) {
+            Node ancestor = parent.get();
+            // variables of a field, but not its annotations
+            if (ancestor instanceof FieldDeclaration && child instanceof VariableDeclarator) {
+                return true;
+            }
+            child = ancestor;
+            parent = ancestor.getParentNode();
+        }
+        return false;
+    }
+
+    /**
+     * check if the node is part of a field variable or of a method declaration
+     */
+    static boolean isInFieldVariableOrMethod(Node node) {
+        Optional<Node> parent = node.getParentNode();
+        Node child = node;
+        while (parent.isPresent()) {
+            Node ancestor = parent.get();
+            if (ancestor instanceof MethodDeclaration) {
+                return true;
+            }
+            // variables of a field, but not its annotations
+            if (ancestor instanceof FieldDeclaration && child instanceof VariableDeclarator) {
+                return true;
+            }
+            child = ancestor;
+            parent = ancestor.getParentNode();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,292 @@
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * EngineOptions holds the settings of a BugFinderEngine run, with the defaults of MyBugFinderForJoda
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class EngineOptions {
+    private int readThreads = 2;
+    private int parseThreads = Runtime.getRuntime().availableProcessors();
+    private int detectThreads = Runtime.getRuntime().availableProcessors();
+    private boolean isMultiPassMode;
+    private boolean isTimingMode;
+    private Path cacheDirectory;
+    private int failureBudget = Integer.MAX_VALUE;
+    private long fileTimeoutMillis;
+    private int slowestFileCount;
+    private boolean isResolvedMode;
+    private List<Path> sourceRoots = Collections.emptyList();
+    private long typeCacheSize = 10000;
+    private Path typeCacheFile;
+    private boolean isProjectLiteralMode;
+    private boolean isApproximateLiteralMode;
+    private long literalMemoryCeiling = 16L * 1024 * 1024;
+    private boolean isProjectHierarchyMode;
+    private Set<String> rules;
+    private boolean isLiteralScannerEnabled = true;
+    private LongSupplier clock = System::nanoTime;
+
+    /**
+     * @param workerCount thread budget of both the parse and the detect stages
+     */
+    EngineOptions setWorkers(final int workerCount) {
+        this.parseThreads = workerCount;
+        this.detectThreads = workerCount;
+        return this;
+    }
+
+    /**
+     * @param readThreads thread budget of the stage reading the files from disk
+     */
+    EngineOptions setReadThreads(final int readThreads) {
+        this.readThreads = readThreads;
+        return this;
+    }
+
+    /**
+     * @param parseThreads thread budget of the stage parsing the files with JavaParser
+     */
+    EngineOptions setParseThreads(final int parseThreads) {
+        this.parseThreads = parseThreads;
+        return this;
+    }
+
+    /**
+     * @param detectThreads thread budget of the stage running the detectors
+     */
+    EngineOptions setDetectThreads(final int detectThreads) {
+        this.detectThreads = detectThreads;
+        return this;
+    }
+
+    /**
+     * @param isMultiPassMode run the original MyBugFinder inspections, one AST walk each, instead of the single-pass detectors
+     */
+    EngineOptions setMultiPassMode(final boolean isMultiPassMode) {
+        this.isMultiPassMode = isMultiPassMode;
+        return this;
+    }
+
+    /**
+     * @param isTimingMode print the time spent in every stage for every file and for the whole batch
+     */
+    EngineOptions setTimingMode(final boolean isTimingMode) {
+        this.isTimingMode = isTimingMode;
+        return this;
+    }
+
+    /**
+     * @param cacheDirectory directory of the AnalysisCache keeping the reports between runs, null to analyze every file
+     */
+    EngineOptions setCacheDirectory(final Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+        return this;
+    }
+
+    /**
+     * @param failureBudget number of files allowed to fail before the run is aborted, 0 to stop at the first one
+     */
+    EngineOptions setFailureBudget(final int failureBudget) {
+        this.failureBudget = failureBudget;
+        return this;
+    }
+
+    /**
+     * @param fileTimeoutMillis time budget of parsing and inspecting a single file, 0 for no limit
+     */
+    EngineOptions setFileTimeout(final long fileTimeoutMillis) {
+        this.fileTimeoutMillis = fileTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * @param slowestFileCount number of the slowest files listed with their stage timings at the end of a run
+     */
+    EngineOptions setSlowestFileCount(final int slowestFileCount) {
+        this.slowestFileCount = slowestFileCount;
+        return this;
+    }
+
+    /**
+     * @param isResolvedMode check the String comparisons with the types given by the symbol solver instead of the field declarations
+     */
+    EngineOptions setResolvedMode(final boolean isResolvedMode) {
+        this.isResolvedMode = isResolvedMode;
+        return this;
+    }
+
+    /**
+     * @param sourceRoots directories the symbol solver looks the types of the scanned code up in, the JRE is always searched
+     */
+    EngineOptions setSourceRoots(final List<Path> sourceRoots) {
+        this.sourceRoots = sourceRoots;
+        return this;
+    }
+
+    /**
+     * @param typeCacheSize number of type names kept by the type solver of the resolved mode
+     */
+    EngineOptions setTypeCacheSize(final long typeCacheSize) {
+        this.typeCacheSize = typeCacheSize;
+        return this;
+    }
+
+    /**
+     * @param typeCacheFile file keeping the names of the types found in the resolved mode between runs, null to start cold
+     */
+    EngineOptions setTypeCacheFile(final Path typeCacheFile) {
+        this.typeCacheFile = typeCacheFile;
+        return this;
+    }
+
+    /**
+     * @param isProjectLiteralMode also report the string literals duplicated across the files of the run
+     */
+    EngineOptions setProjectLiteralMode(final boolean isProjectLiteralMode) {
+        this.isProjectLiteralMode = isProjectLiteralMode;
+        return this;
+    }
+
+    /**
+     * @param isApproximateLiteralMode find the literals duplicated across files with a sketch and a second pass over the
+     *                                 files instead of indexing every literal, only used with the project literal mode
+     */
+    EngineOptions setApproximateLiteralMode(final boolean isApproximateLiteralMode) {
+        this.isApproximateLiteralMode = isApproximateLiteralMode;
+        return this;
+    }
+
+    /**
+     * @param literalMemoryCeiling memory in bytes the approximate literal mode may take for the whole run
+     */
+    EngineOptions setLiteralMemoryCeiling(final long literalMemoryCeiling) {
+        this.literalMemoryCeiling = literalMemoryCeiling;
+        return this;
+    }
+
+    /**
+     * @param isProjectHierarchyMode check the classes defining clone() against the supertypes of the whole run
+     */
+    EngineOptions setProjectHierarchyMode(final boolean isProjectHierarchyMode) {
+        this.isProjectHierarchyMode = isProjectHierarchyMode;
+        return this;
+    }
+
+    /**
+     * @param rules names of the inspections to be run, e.g. BadStringComparisonDetector.NAME, null to run them all
+     */
+    EngineOptions setRules(final Set<String> rules) {
+        this.rules = rules;
+        return this;
+    }
+
+    /**
+     * @param isLiteralScannerEnabled scan the files with LiteralScanner instead of parsing them when the duplicated
+     *                                literals are the only inspection, true by default
+     */
+    EngineOptions setLiteralScannerEnabled(final boolean isLiteralScannerEnabled) {
+        this.isLiteralScannerEnabled = isLiteralScannerEnabled;
+        return this;
+    }
+
+    /**
+     * @param clock nanosecond clock of the timings and of the file timeouts, System.nanoTime() by default
+     */
+    EngineOptions setClock(final LongSupplier clock) {
+        this.clock = clock;
+        return this;
+    }
+
+    int getReadThreads() {
+        return readThreads;
+    }
+
+    int getParseThreads() {
+        return parseThreads;
+    }
+
+    int getDetectThreads() {
+        return detectThreads;
+    }
+
+    boolean isMultiPassMode() {
+        return isMultiPassMode;
+    }
+
+    boolean isTimingMode() {
+        return isTimingMode;
+    }
+
+    Path getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    int getFailureBudget() {
+        return failureBudget;
+    }
+
+    long getFileTimeout() {
+        return fileTimeoutMillis;
+    }
+
+    int getSlowestFileCount() {
+        return slowestFileCount;
+    }
+
+    boolean isResolvedMode() {
+        return isResolvedMode;
+    }
+
+    List<Path> getSourceRoots() {
+        return sourceRoots;
+    }
+
+    long getTypeCacheSize() {
+        return typeCacheSize;
+    }
+
+    Path getTypeCacheFile() {
+        return typeCacheFile;
+    }
+
+    boolean isProjectLiteralMode() {
+        return isProjectLiteralMode;
+    }
+
+    boolean isApproximateLiteralMode() {
+        return isApproximateLiteralMode;
+    }
+
+    long getLiteralMemoryCeiling() {
+        return literalMemoryCeiling;
+    }
+
+    boolean isProjectHierarchyMode() {
+        return isProjectHierarchyMode;
+    }
+
+    Set<String> getRules() {
+        return rules;
+    }
+
+    /**
+     * @param rule name of an inspection
+     * @return true if the inspection is to be run
+     */
+    boolean isRuleEnabled(final String rule) {
+        return rules == null || rules.contains(rule);
+    }
+
+    boolean isLiteralScannerEnabled() {
+        return isLiteralScannerEnabled;
+    }
+
+    LongSupplier getClock() {
+        return clock;
+    }
+}
@@ -0,0 +1,39 @@
+import java.util.function.Function;
+
+/**
+ * Fact is something an inspection needs to know about a file before it starts, e.g. the names of its String fields.
+ * Facts are computed from the session the first time an inspection asks for them and kept by the session,
+ * so a fact no enabled inspection depends on is never computed, and one shared by several is computed once.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+final class Fact<T> {
+    private final String name;
+    private final Function<AnalysisSession, T> computation;
+
+    /**
+     * @param name name of the fact, for the messages
+     * @param computation computes the fact for a session, it may ask the session for other facts
+     */
+    Fact(final String name, final Function<AnalysisSession, T> computation) {
+        this.name = name;
+        this.computation = computation;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * @param session session of the file the fact is about
+     * @return the fact, computed again on every call: ask AnalysisSession.get to have it memoized
+     */
+    T computeFor(final AnalysisSession session) {
+        return computation.apply(session);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
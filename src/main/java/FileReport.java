@@ -0,0 +1,147 @@
+import com.github.javaparser.ParseProblemException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FileReport holds the inspection results and the findings of a single analyzed file,
+ * or the reason why the file could not be analyzed
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class FileReport {
+    private final String path;
+    private final List<Finding> findings;
+    private final Map<String, Boolean> results;
+    private final List<String> parseProblems;
+    private final Exception failure;
+    private final long sizeBytes;
+    private final long readNanos;
+    private final long parseNanos;
+    private final long traversalNanos;
+
+    /**
+     * @param findings bugs reported by the detectors, in reporting order
+     * @param results inspection result by detector name
+     * @param parseProblems errors the parser recovered from, the results only cover the code it could make sense of
+     * @param sizeBytes size of the file
+     * @param readNanos time spent reading the file
+     * @param parseNanos time spent decoding and parsing the file
+     * @param traversalNanos time spent inspecting the parsed file
+     */
+    FileReport(final String path, final List<Finding> findings, final Map<String, Boolean> results, final List<String> parseProblems,
+               final long sizeBytes, final long readNanos, final long parseNanos, final long traversalNanos) {
+        this(path, findings, results, parseProblems, null, sizeBytes, readNanos, parseNanos, traversalNanos);
+    }
+
+    private FileReport(final String path, final List<Finding> findings, final Map<String, Boolean> results, final List<String> parseProblems,
+                       final Exception failure, final long sizeBytes, final long readNanos, final long parseNanos, final long traversalNanos) {
+        this.path = path;
+        this.findings = findings;
+        this.results = results;
+        this.parseProblems = parseProblems;
+        this.failure = failure;
+        this.sizeBytes = sizeBytes;
+        this.readNanos = readNanos;
+        this.parseNanos = parseNanos;
+        this.traversalNanos = traversalNanos;
+    }
+
+    /**
+     * @param failure why the file could not be analyzed, e.g. a ParseProblemException
+     * @return the report of a file without findings nor results
+     */
+    static FileReport failed(final String path, final Exception failure, final long sizeBytes, final long readNanos,
+                             final long parseNanos, final long traversalNanos) {
+        return new FileReport(path, Collections.emptyList(), Collections.emptyMap(), Collections.emptyList(),
+                failure, sizeBytes, readNanos, parseNanos, traversalNanos);
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * @return bugs reported by the detectors while analyzing this file
+     */
+    List<Finding> getFindings() {
+        return findings;
+    }
+
+    /**
+     * @return errors the parser recovered from, empty for a clean file
+     */
+    List<String> getParseProblems() {
+        return parseProblems;
+    }
+
+    /**
+     * @return why the file could not be analyzed, or null if it was
+     */
+    Exception getFailure() {
+        return failure;
+    }
+
+    boolean isFailed() {
+        return failure != null;
+    }
+
+    boolean isParseFailure() {
+        return failure instanceof ParseProblemException;
+    }
+
+    /**
+     * @return true if the file ran past its time budget, see EngineOptions.setFileTimeout
+     */
+    boolean isTimedOut() {
+        return failure instanceof FileTimeoutException;
+    }
+
+    /**
+     * @return inspection result by detector name, empty for a failed file
+     */
+    Map<String, Boolean> getResults() {
+        return results;
+    }
+
+    /**
+     * @return size of the file in bytes, 0 if it could not be read
+     */
+    long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    /**
+     * @return time spent reading the file from disk, in nanoseconds
+     */
+    long getReadNanos() {
+        return readNanos;
+    }
+
+    /**
+     * @return time spent decoding and parsing the file, in nanoseconds
+     */
+    long getParseNanos() {
+        return parseNanos;
+    }
+
+    /**
+     * @return time spent in the traversal phase, i.e. after parsing, in nanoseconds
+     */
+    long getTraversalNanos() {
+        return traversalNanos;
+    }
+
+    boolean isGoodStringComparison() {
+        return results.getOrDefault(BadStringComparisonDetector.NAME, true);
+    }
+
+    boolean isImplementsCloneableWhenDefinesClone() {
+        return results.getOrDefault(CloneableDetector.NAME, true);
+    }
+
+    boolean isGoodStringLiteral() {
+        return results.getOrDefault(DuplicatedStringLiteralDetector.NAME, true);
+    }
+}
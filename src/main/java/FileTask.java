@@ -0,0 +1,39 @@
+import com.github.javaparser.ast.CompilationUnit;
+
+import java.util.List;
+
+/**
+ * FileTask carries one file through the stages of the BugFinderEngine pipeline.
+ * Every field is written by a single stage and read by the next one after the hand-off through a queue.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class FileTask {
+    /**
+     * marker put behind the last file, telling the stages to shut down
+     */
+    static final FileTask END = new FileTask(-1, null);
+
+    final long sequence;
+    final String path;
+    String source;
+    String cacheKey;
+    CompilationUnit compilationUnit;
+    List<String> parseProblems;
+    Deadline deadline;
+    FileReport report;
+    Exception failure;
+    long readNanos;
+    long sizeBytes;
+    long parseNanos;
+    long traversalNanos;
+
+    /**
+     * @param sequence position of the file in the input, used to merge the reports back in order
+     * @param path path of the .java file
+     */
+    FileTask(final long sequence, final String path) {
+        this.sequence = sequence;
+        this.path = path;
+    }
+}
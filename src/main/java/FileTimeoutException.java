@@ -0,0 +1,13 @@
+/**
+ * FileTimeoutException is thrown at the next checkpoint of a file whose analysis ran past its Deadline
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class FileTimeoutException extends RuntimeException {
+    /**
+     * @param budgetMillis time budget the file ran past
+     */
+    FileTimeoutException(final long budgetMillis) {
+        super("analysis took longer than " + budgetMillis + " ms");
+    }
+}
@@ -0,0 +1,73 @@
+import com.github.javaparser.Range;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Finding is one bug reported by a detector: the rule that found it, where it was found and the message
+ * for the user. Detectors never print their findings, they hand them to their AnalysisSession.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+final class Finding {
+    private final String ruleId;
+    private final String path;
+    private final Range range;
+    private final String message;
+    private final String snippet;
+
+    /**
+     * @param ruleId name of the detector reporting the bug, e.g. BadStringComparisonDetector.NAME
+     * @param path path of the inspected file
+     * @param range lines and columns of the offending code, both ends included, or null if unknown
+     * @param message description of the bug
+     * @param snippet the offending code, e.g. the comparison or the literal
+     */
+    Finding(final String ruleId, final String path, final Range range, final String message, final String snippet) {
+        this.ruleId = ruleId;
+        this.path = path;
+        this.range = range;
+        this.message = message;
+        this.snippet = snippet;
+    }
+
+    String getRuleId() {
+        return ruleId;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    Optional<Range> getRange() {
+        return Optional.ofNullable(range);
+    }
+
+    String getMessage() {
+        return message;
+    }
+
+    String getSnippet() {
+        return snippet;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (!(other instanceof Finding)) {
+            return false;
+        }
+        Finding finding = (Finding) other;
+        return ruleId.equals(finding.ruleId) && path.equals(finding.path) && Objects.equals(range, finding.range)
+                && message.equals(finding.message) && snippet.equals(finding.snippet);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ruleId, path, range, message, snippet);
+    }
+
+    @Override
+    public String toString() {
+        return ruleId + " in " + path + (range == null ? "" : " " + range) + ": " + message;
+    }
+}
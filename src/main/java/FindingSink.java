@@ -0,0 +1,31 @@
+/**
+ * FindingSink receives the reports of the analyzed files, file by file: first beginFile, then the findings
+ * of that file and any notes, e.g. timings. Implementations decide the format and where it is written to.
+ * Write errors are thrown as UncheckedIOException.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+interface FindingSink extends AutoCloseable {
+    /**
+     * @param path path of the file whose findings follow
+     */
+    void beginFile(String path);
+
+    void finding(Finding finding);
+
+    /**
+     * @param text free text line, e.g. the timings of a file or of the whole run
+     */
+    void note(String text);
+
+    /**
+     * Write out everything received so far
+     */
+    void flush();
+
+    /**
+     * Flush and release the sink, the underlying stream is left open for its owner
+     */
+    @Override
+    void close();
+}
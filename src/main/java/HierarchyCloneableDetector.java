@@ -0,0 +1,142 @@
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Project-wide version of CloneableDetector. Every class, interface and enum of the file is added to the
+ * TypeHierarchyIndex of the run with its direct supertypes, and every class declaring its own clone() is checked
+ * against the index once the whole run is scanned, so Cloneable may come from a superclass or a superinterface
+ * declared in another file. The findings are reported by the engine at the end of the run, not in the file report.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class HierarchyCloneableDetector implements Detector {
+    private final TypeHierarchyIndex typeHierarchyIndex;
+    private final List<TypeDeclaration<?>> types = new ArrayList<>();
+
+    /**
+     * @param typeHierarchyIndex index of the types of the whole run
+     */
+    HierarchyCloneableDetector(final TypeHierarchyIndex typeHierarchyIndex) {
+        this.typeHierarchyIndex = typeHierarchyIndex;
+    }
+
+    @Override
+    public String getName() {
+        return CloneableDetector.NAME;
+    }
+
+    @Override
+    public List<Class<? extends Node>> getNodeTypes() {
+        return Arrays.asList(ClassOrInterfaceDeclaration.class, EnumDeclaration.class);
+    }
+
+    @Override
+    public void visit(Node node) {
+        types.add((TypeDeclaration<?>) node);
+    }
+
+    /**
+     * @return always true, the classes defining clone() are only checked at the end of the run
+     */
+    @Override
+    public boolean finish(AnalysisSession session) {
+        CompilationUnit compilationUnit = session.getCompilationUnit();
+        for (TypeDeclaration<?> type : types) {
+            String qualifiedName = qualifiedNameOf(type);
+            // local classes cannot be named from another file
+            if (qualifiedName == null) {
+                continue;
+            }
+            List<ClassOrInterfaceType> directSupertypes = new ArrayList<>();
+            if (type instanceof ClassOrInterfaceDeclaration) {
+                directSupertypes.addAll(((ClassOrInterfaceDeclaration) type).getExtendedTypes());
+                directSupertypes.addAll(((ClassOrInterfaceDeclaration) type).getImplementedTypes());
+            } else {
+                directSupertypes.addAll(((EnumDeclaration) type).getImplementedTypes());
+            }
+            List<List<String>> supertypeCandidates = new ArrayList<>(directSupertypes.size());
+            for (ClassOrInterfaceType supertype : directSupertypes) {
+                supertypeCandidates.add(candidatesOf(nameWithScope(supertype), type, compilationUnit));
+            }
+            typeHierarchyIndex.addType(qualifiedName, supertypeCandidates);
+
+            if (type instanceof ClassOrInterfaceDeclaration && !((ClassOrInterfaceDeclaration) type).isInterface()) {
+                for (MethodDeclaration cloneMethod : type.getMethodsBySignature("clone")) {
+                    typeHierarchyIndex.addCloneCheck(qualifiedName, new Finding(CloneableDetector.NAME, session.getPath(),
+                            cloneMethod.getRange().orElse(null), "New NotImplementsCloneableWhenDefinesClone bug found",
+                            cloneMethod.getDeclarationAsString()));
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return e.g. "org.joda.time.DateTimeZone" or "org.joda.time.DateTimeZone.Stub", null for a local class
+     */
+    private static String qualifiedNameOf(final TypeDeclaration<?> type) {
+        StringBuilder qualifiedName = new StringBuilder(type.getNameAsString());
+        Node parent = type.getParentNode().orElse(null);
+        while (parent instanceof TypeDeclaration) {
+            qualifiedName.insert(0, ((TypeDeclaration<?>) parent).getNameAsString() + ".");
+            parent = parent.getParentNode().orElse(null);
+        }
+        if (!(parent instanceof CompilationUnit)) {
+            return null;
+        }
+        String packageName = packageOf((CompilationUnit) parent);
+        return packageName.isEmpty() ? qualifiedName.toString() : packageName + "." + qualifiedName;
+    }
+
+    private static String packageOf(final CompilationUnit compilationUnit) {
+        return compilationUnit.getPackageDeclaration().map(declaration -> declaration.getNameAsString()).orElse("");
+    }
+
+    private static String nameWithScope(final ClassOrInterfaceType type) {
+        return type.getScope().map(scope -> nameWithScope(scope) + ".").orElse("") + type.getNameAsString();
+    }
+
+    /**
+     * List the types a supertype name may stand for, in the order Java looks them up: the members of the enclosing
+     * types, the single-type imports, the package of the file, the on-demand imports, java.lang, and the name as is
+     */
+    private static List<String> candidatesOf(final String name, final TypeDeclaration<?> type, final CompilationUnit compilationUnit) {
+        List<String> candidates = new ArrayList<>();
+        int dot = name.indexOf('.');
+        String first = dot < 0 ? name : name.substring(0, dot);
+        String rest = dot < 0 ? "" : name.substring(dot);
+
+        Node enclosing = type.getParentNode().orElse(null);
+        while (enclosing instanceof TypeDeclaration) {
+            candidates.add(qualifiedNameOf((TypeDeclaration<?>) enclosing) + "." + name);
+            enclosing = enclosing.getParentNode().orElse(null);
+        }
+        for (ImportDeclaration importDeclaration : compilationUnit.getImports()) {
+            String imported = importDeclaration.getNameAsString();
+            if (!importDeclaration.isStatic() && !importDeclaration.isAsterisk()
+                    && (imported.equals(first) || imported.endsWith("." + first))) {
+                candidates.add(imported + rest);
+            }
+        }
+        String packageName = packageOf(compilationUnit);
+        candidates.add(packageName.isEmpty() ? name : packageName + "." + name);
+        for (ImportDeclaration importDeclaration : compilationUnit.getImports()) {
+            if (!importDeclaration.isStatic() && importDeclaration.isAsterisk()) {
+                candidates.add(importDeclaration.getNameAsString() + "." + name);
+            }
+        }
+        candidates.add("java.lang." + name);
+        candidates.add(name);
+        return candidates;
+    }
+}
@@ -0,0 +1,81 @@
+import java.util.Arrays;
+
+/**
+ * IntSet is a set of non-negative ints in a single open-addressing array, without boxing: adding and
+ * looking up allocate nothing, except when the table grows.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+final class IntSet {
+    private static final int EMPTY = -1;
+
+    private int[] slots;
+    private int size;
+
+    IntSet() {
+        slots = new int[16];
+        Arrays.fill(slots, EMPTY);
+    }
+
+    /**
+     * @param value non-negative value, e.g. an id of a SymbolTable
+     * @return true if the value was not in the set yet
+     */
+    boolean add(final int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("negative value: " + value);
+        }
+        int slot = find(slots, value);
+        if (slots[slot] == value) {
+            return false;
+        }
+        slots[slot] = value;
+        // keep at least half of the slots empty, so that probe sequences stay short
+        if (++size * 2 > slots.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * @param value any value, negative ones are never contained, e.g. SymbolTable.NO_ID
+     */
+    boolean contains(final int value) {
+        return value >= 0 && slots[find(slots, value)] == value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * linear probing from the mixed value: the slot holding the value, or the empty slot where it belongs
+     */
+    private static int find(final int[] slots, final int value) {
+        int mask = slots.length - 1;
+        int slot = mix(value) & mask;
+        while (slots[slot] != EMPTY && slots[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] grown = new int[slots.length * 2];
+        Arrays.fill(grown, EMPTY);
+        for (int value : slots) {
+            if (value != EMPTY) {
+                grown[find(grown, value)] = value;
+            }
+        }
+        slots = grown;
+    }
+
+    /**
+     * spread consecutive ids over the table
+     */
+    static int mix(final int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
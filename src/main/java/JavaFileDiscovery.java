@@ -0,0 +1,140 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * JavaFileDiscovery finds the .java files under a root directory on a background thread and hands their
+ * paths out while the walk is still running, so analysis can start on the first file right away.
+ * Entries of every directory are sorted, which keeps the order stable across file systems, and the
+ * queue between the walk and its consumer is bounded, so memory does not grow with the size of the tree.
+ * Symbolic links to directories are not followed, so a link loop cannot make the walk endless.
+ * A consumer stopping before the end, e.g. a run aborted by its failure budget, must close the discovery:
+ * the walker would otherwise wait forever for room in the queue.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class JavaFileDiscovery implements Iterator<String>, AutoCloseable {
+    private static final int QUEUE_CAPACITY = 256;
+    private static final String END_OF_DISCOVERY = "";
+
+    private final BlockingQueue<String> javaFilesPathQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private volatile IOException failure;
+    private String next;
+    private Thread walker;
+
+    private JavaFileDiscovery() {
+    }
+
+    /**
+     * Start walking the root directory in the background
+     * @param rootDirectory root directory path to begin searching
+     * @return iterator over the absolute paths of the .java files, in discovery order
+     */
+    static JavaFileDiscovery start(final Path rootDirectory) {
+        JavaFileDiscovery discovery = new JavaFileDiscovery();
+        discovery.walker = new Thread(() -> discovery.walk(rootDirectory), "java-file-discovery");
+        discovery.walker.setDaemon(true);
+        discovery.walker.start();
+        return discovery;
+    }
+
+    /**
+     * Stop the walk if it is still running and wait for the walker to end, no path is to be taken afterwards
+     */
+    @Override
+    public void close() {
+        walker.interrupt();
+        try {
+            walker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return true while the walker thread is running
+     */
+    boolean isWalking() {
+        return walker.isAlive();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = javaFilesPathQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while discovering .java files", e);
+            }
+        }
+        if (next.equals(END_OF_DISCOVERY)) {
+            if (failure != null) {
+                throw new UncheckedIOException(failure);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String javaFilePath = next;
+        next = null;
+        return javaFilePath;
+    }
+
+    /**
+     * producer side: walk the whole tree, then put the end marker
+     */
+    private void walk(final Path rootDirectory) {
+        try {
+            walkDirectory(rootDirectory);
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            javaFilesPathQueue.put(END_OF_DISCOVERY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void walkDirectory(final Path directory) throws IOException, InterruptedException {
+        // only the entries of the current directory are held, not the whole tree
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory)) {
+            for (Path entry : directoryStream) {
+                entries.add(entry);
+            }
+        }
+        Collections.sort(entries);
+        for (Path entry : entries) {
+            // a tree without .java files never blocks on the queue
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                walkDirectory(entry);
+            } else if (entry.getFileName().toString().endsWith(".java") && Files.isRegularFile(entry)) {
+                javaFilesPathQueue.put(entry.toAbsolutePath().toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+import com.github.javaparser.Range;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * JsonReportFormat writes the reports as compact JSON, one object per line: {"file": ...} when a file starts,
+ * one object per finding and {"note": ...} for the free text lines. Every line stands on its own, so tools can
+ * consume the report while a scan is still writing it.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class JsonReportFormat implements FindingSink {
+    private final PrintWriter out;
+
+    /**
+     * @param out writer receiving the report, flushed only by flush() unless it flushes itself
+     */
+    JsonReportFormat(final PrintWriter out) {
+        this.out = out;
+    }
+
+    @Override
+    public void beginFile(final String path) {
+        out.println("{\"file\":" + Json.quote(path) + "}");
+    }
+
+    @Override
+    public void finding(final Finding finding) {
+        StringBuilder line = new StringBuilder("{\"rule\":").append(Json.quote(finding.getRuleId()))
+                .append(",\"file\":").append(Json.quote(finding.getPath()));
+        if (finding.getRange().isPresent()) {
+            // both ends included, columns counted from 1 like the lines
+            Range range = finding.getRange().get();
+            line.append(",\"startLine\":").append(range.begin.line).append(",\"startColumn\":").append(range.begin.column)
+                    .append(",\"endLine\":").append(range.end.line).append(",\"endColumn\":").append(range.end.column);
+        }
+        line.append(",\"message\":").append(Json.quote(finding.getMessage()))
+                .append(",\"snippet\":").append(Json.quote(finding.getSnippet())).append('}');
+        out.println(line);
+    }
+
+    @Override
+    public void note(final String text) {
+        out.println("{\"note\":" + Json.quote(text) + "}");
+    }
+
+    @Override
+    public void flush() {
+        // PrintWriter keeps its errors to itself
+        if (out.checkError()) {
+            throw new UncheckedIOException(new IOException("cannot write the report"));
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,29 @@
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * LiteralIndex collects the string literals of all the files of a run, fed concurrently by the detect threads,
+ * and reports the ones found in more than one file once the run is over.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+interface LiteralIndex {
+    /**
+     * @param path path of the inspected file
+     * @param literals string literals of the file checked by DuplicatedStringLiteral
+     */
+    void add(String path, Collection<StringLiteralExpr> literals);
+
+    /**
+     * @return number of distinct literals indexed so far
+     */
+    int size();
+
+    /**
+     * Only to be called once all the files have been added
+     * @return one finding per occurrence of every literal found in more than one file, sorted by literal then by site
+     */
+    List<Finding> getDuplicatedLiterals();
+}
@@ -0,0 +1,656 @@
+import com.github.javaparser.Position;
+import com.github.javaparser.Range;
+import com.github.javaparser.utils.StringEscapeUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * LiteralScanner finds the same duplicated string literals as DuplicatedStringLiteralDetector without building an AST.
+ * A small lexer turns the source code into tokens, skipping comments and whitespace, and a recursive descent over
+ * the brackets tells the members apart: a literal counts when it is inside a method declaration, its annotations
+ * and parameters included, or inside the variables of a field, its annotations excluded, however deeply nested.
+ * Inside constructors, initializers and enum constant arguments only the local and anonymous classes are looked into.
+ * Like the detector, the literals of the field variables are checked before those of the methods.
+ * The scanner expects code that compiles: on anything it does not understand it throws, and the caller is
+ * expected to fall back to the full parse, which also reports the parse errors. Besides unbalanced brackets and
+ * unterminated literals or comments, it notices an operand missing after "=" or ",", like in "int x = ;", the
+ * usual statement JavaParser recovers from. Other errors keeping the brackets balanced, e.g. "int x = 1 2;",
+ * go unnoticed: the findings are still those of the detector, but the report lacks the recovered parse error.
+ * With a Deadline, every token is a checkpoint.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class LiteralScanner {
+    private static final int EOF = -1;
+    private static final int IDENTIFIER = -2;
+    private static final int STRING = -3;
+    private static final int OTHER_LITERAL = -4;
+    // where a literal is: in no checked declaration, in a method, or in the variables of a field
+    private static final int OUTSIDE = 0;
+    private static final int IN_METHOD = 1;
+    private static final int IN_FIELD = 2;
+    private static final String[] MODIFIERS = {"public", "protected", "private", "static", "final", "abstract", "native",
+            "synchronized", "transient", "volatile", "strictfp", "default"};
+
+    /**
+     * a string literal, as written between its quotes
+     */
+    private static final class Literal {
+        private final String value;
+        private final Range range;
+
+        private Literal(final String value, final Range range) {
+            this.value = value;
+            this.range = range;
+        }
+    }
+
+    private final String path;
+    private final String source;
+    private final Deadline deadline;
+    private final List<Literal> fieldLiterals = new ArrayList<>();
+    private final List<Literal> methodLiterals = new ArrayList<>();
+    // lexer position
+    private int position;
+    private int line = 1;
+    private int column = 1;
+    // current token
+    private int kind;
+    private int previousKind;
+    private int previousStart;
+    private int previousLength;
+    private int start;
+    private int end;
+    private Range range;
+
+    /**
+     * @param path path of the scanned file, used in the findings
+     * @param source source code of a compilation unit
+     */
+    LiteralScanner(final String path, final String source) {
+        this(path, source, null);
+    }
+
+    /**
+     * @param path path of the scanned file, used in the findings
+     * @param source source code of a compilation unit
+     * @param deadline time budget of the file, checked for every token, or null
+     */
+    LiteralScanner(final String path, final String source, final Deadline deadline) {
+        this.path = path;
+        this.source = source;
+        this.deadline = deadline;
+    }
+
+    /**
+     * @return the duplicated string literals, like the findings of DuplicatedStringLiteralDetector and in its order
+     * @throws IllegalStateException if the source code is not understood, e.g. because it does not compile
+     * @throws FileTimeoutException if the deadline expires during the scan
+     */
+    List<Finding> scan() {
+        advance();
+        while (kind != EOF) {
+            if (kind == ';') {
+                advance();
+                continue;
+            }
+            // annotations of a package or of a type are never checked
+            boolean isAnnotationType = modifiers(new ArrayList<>());
+            if (isIdentifier("package") || isIdentifier("import")) {
+                while (kind != ';') {
+                    expectNotEnd();
+                    advance();
+                }
+                advance();
+            } else if (isAnnotationType || isTypeKeyword()) {
+                typeDeclaration(isAnnotationType, OUTSIDE);
+            } else {
+                throw unexpected();
+            }
+        }
+
+        List<Finding> findings = new ArrayList<>();
+        Set<String> stringLiteralSet = new HashSet<>();
+        check(fieldLiterals, stringLiteralSet, findings);
+        check(methodLiterals, stringLiteralSet, findings);
+        return findings;
+    }
+
+    /**
+     * Skip the annotations and modifiers in front of a declaration
+     * @param literals receives the literals of the annotations
+     * @return true if the declaration is an annotation type, the current token is then its "interface" keyword
+     */
+    private boolean modifiers(final List<Literal> literals) {
+        while (true) {
+            if (kind == '@') {
+                advance();
+                if (isIdentifier("interface")) {
+                    return true;
+                }
+                annotation(literals);
+            } else if (isModifier()) {
+                advance();
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * the name and the arguments of an annotation, after its "@"
+     */
+    private void annotation(final List<Literal> literals) {
+        expect(IDENTIFIER);
+        advance();
+        while (kind == '.') {
+            advance();
+            expect(IDENTIFIER);
+            advance();
+        }
+        if (kind == '(') {
+            collectGroup(literals);
+        }
+    }
+
+    /**
+     * A class, interface, enum or annotation type, from its keyword on
+     * @param scope where the declaration is, e.g. IN_METHOD for a local class
+     */
+    private void typeDeclaration(final boolean isAnnotationType, final int scope) {
+        boolean isEnum = isIdentifier("enum");
+        advance();
+        expect(IDENTIFIER);
+        String name = source.substring(start, end);
+        advance();
+        // type parameters, superclass and interfaces
+        while (kind != '{') {
+            expectNotEnd();
+            if (kind == '(') {
+                recordGroup(scope);
+            } else {
+                advance();
+            }
+        }
+        advance();
+        if (isEnum) {
+            enumConstants(scope);
+        }
+        typeBody(name, isAnnotationType, scope);
+    }
+
+    /**
+     * the constants of an enum, their arguments are not checked
+     */
+    private void enumConstants(final int scope) {
+        while (kind != '}') {
+            expectNotEnd();
+            if (kind == ';') {
+                advance();
+                return;
+            }
+            if (kind == ',') {
+                advance();
+                continue;
+            }
+            List<Literal> annotationLiterals = new ArrayList<>();
+            modifiers(annotationLiterals);
+            keep(annotationLiterals, scope);
+            expect(IDENTIFIER);
+            advance();
+            if (kind == '(') {
+                advance();
+                code(')', scope);
+            }
+            if (kind == '{') {
+                advance();
+                typeBody(null, false, scope);
+            }
+        }
+    }
+
+    /**
+     * The members of a type, after its "{" and up to its "}" included
+     * @param name simple name of the type, telling its constructors apart, null for an anonymous class
+     */
+    private void typeBody(final String name, final boolean isAnnotationType, final int scope) {
+        while (kind != '}') {
+            expectNotEnd();
+            member(name, isAnnotationType, scope);
+        }
+        advance();
+    }
+
+    private void member(final String typeName, final boolean isAnnotationType, final int scope) {
+        if (kind == ';') {
+            advance();
+            return;
+        }
+        List<Literal> annotationLiterals = new ArrayList<>();
+        if (modifiers(annotationLiterals)) {
+            keep(annotationLiterals, scope);
+            typeDeclaration(true, scope);
+            return;
+        }
+        if (isTypeKeyword()) {
+            keep(annotationLiterals, scope);
+            typeDeclaration(false, scope);
+            return;
+        }
+        if (kind == '{') {
+            // initializer
+            advance();
+            code('}', scope);
+            return;
+        }
+        if (kind == '<') {
+            // type parameters of a method or a constructor
+            skipAngles();
+        }
+        // the type and the name: a constructor has no type
+        int identifiers = 0;
+        boolean onlyName = true;
+        while (true) {
+            expectNotEnd();
+            if (kind == '(' || kind == '=' || kind == ';' || kind == ',') {
+                break;
+            }
+            if (kind == '@') {
+                advance();
+                annotation(annotationLiterals);
+                continue;
+            }
+            if (kind == '<') {
+                skipAngles();
+                onlyName = false;
+                continue;
+            }
+            if (kind == IDENTIFIER) {
+                identifiers++;
+            } else if (kind == '.' || kind == '[' || kind == ']') {
+                onlyName = false;
+            } else {
+                throw unexpected();
+            }
+            advance();
+        }
+
+        if (kind != '(') {
+            // a field: its annotations are not part of its variables
+            keep(annotationLiterals, scope);
+            recordUntil(';', IN_FIELD);
+        } else if (isAnnotationType) {
+            // an annotation member with its default value, not a method
+            keep(annotationLiterals, scope);
+            code(';', scope);
+        } else if (identifiers == 1 && onlyName && typeName != null && source.startsWith(typeName, previousStart)
+                && previousLength == typeName.length()) {
+            keep(annotationLiterals, scope);
+            callableRest(scope);
+        } else {
+            // a method, with its annotations, parameters and body
+            keep(annotationLiterals, IN_METHOD);
+            callableRest(IN_METHOD);
+        }
+    }
+
+    /**
+     * the parameters, the exceptions and the body of a method or a constructor, from "(" on
+     */
+    private void callableRest(final int scope) {
+        advance();
+        code(')', scope);
+        while (kind != '{' && kind != ';') {
+            expectNotEnd();
+            if (kind == '(') {
+                // arguments of a type annotation
+                recordGroup(scope);
+            } else {
+                advance();
+            }
+        }
+        advance();
+        if (previousKind == '{') {
+            code('}', scope);
+        }
+    }
+
+    /**
+     * Code up to the given closing token included, e.g. the body of a method or of a constructor,
+     * looking into its local and anonymous classes
+     */
+    private void code(final int closing, final int scope) {
+        while (kind != closing) {
+            expectNotEnd();
+            if (kind == STRING) {
+                keepCurrent(scope);
+                advance();
+            } else if (kind == '(') {
+                advance();
+                code(')', scope);
+            } else if (kind == '[') {
+                advance();
+                code(']', scope);
+            } else if (kind == '{') {
+                advance();
+                code('}', scope);
+            } else if (kind == ')' || kind == ']' || kind == '}') {
+                throw unexpected();
+            } else if (isIdentifier("new")) {
+                advance();
+                instanceCreation(scope);
+            } else if (isTypeKeyword() && previousKind != '.') {
+                // a local class, "String.class" is no declaration
+                typeDeclaration(false, scope);
+            } else {
+                advance();
+            }
+        }
+        advance();
+    }
+
+    /**
+     * after "new": an anonymous class has a body after its arguments
+     */
+    private void instanceCreation(final int scope) {
+        List<Literal> annotationLiterals = new ArrayList<>();
+        while (kind == '@' || kind == IDENTIFIER || kind == '.' || kind == '<') {
+            if (kind == '@') {
+                advance();
+                annotation(annotationLiterals);
+            } else if (kind == '<') {
+                skipAngles();
+            } else {
+                advance();
+            }
+        }
+        keep(annotationLiterals, scope);
+        if (kind == '(') {
+            advance();
+            code(')', scope);
+            if (kind == '{') {
+                advance();
+                typeBody(null, false, scope);
+            }
+        }
+    }
+
+    /**
+     * Keep every literal up to the given token, at the same bracket depth, included
+     */
+    private void recordUntil(final int last, final int scope) {
+        while (kind != last) {
+            expectNotEnd();
+            if (kind == STRING) {
+                keepCurrent(scope);
+                advance();
+            } else if (kind == '(' || kind == '[' || kind == '{') {
+                recordGroup(scope);
+            } else if (kind == ')' || kind == ']' || kind == '}') {
+                throw unexpected();
+            } else {
+                advance();
+            }
+        }
+        advance();
+    }
+
+    /**
+     * Keep every literal of a bracketed group, from its opening token to the matching closing one included
+     */
+    private void recordGroup(final int scope) {
+        int depth = 0;
+        do {
+            expectNotEnd();
+            if (kind == STRING) {
+                keepCurrent(scope);
+            } else if (kind == '(' || kind == '[' || kind == '{') {
+                depth++;
+            } else if (kind == ')' || kind == ']' || kind == '}') {
+                depth--;
+            }
+            advance();
+        } while (depth > 0);
+    }
+
+    /**
+     * Keep the literals of a bracketed group aside, from its opening token to the matching closing one included
+     */
+    private void collectGroup(final List<Literal> literals) {
+        int depth = 0;
+        do {
+            expectNotEnd();
+            if (kind == STRING) {
+                literals.add(new Literal(source.substring(start + 1, end - 1), range));
+            } else if (kind == '(' || kind == '[' || kind == '{') {
+                depth++;
+            } else if (kind == ')' || kind == ']' || kind == '}') {
+                depth--;
+            }
+            advance();
+        } while (depth > 0);
+    }
+
+    /**
+     * type arguments or parameters, from "<" to the matching ">" included
+     */
+    private void skipAngles() {
+        int depth = 0;
+        do {
+            expectNotEnd();
+            if (kind == '<') {
+                depth++;
+            } else if (kind == '>') {
+                depth--;
+            } else if (kind == '(') {
+                // arguments of a type annotation
+                recordGroup(OUTSIDE);
+                continue;
+            }
+            advance();
+        } while (depth > 0);
+    }
+
+    private void keepCurrent(final int scope) {
+        if (scope == IN_FIELD) {
+            fieldLiterals.add(new Literal(source.substring(start + 1, end - 1), range));
+        } else if (scope == IN_METHOD) {
+            methodLiterals.add(new Literal(source.substring(start + 1, end - 1), range));
+        }
+    }
+
+    private void keep(final List<Literal> literals, final int scope) {
+        if (scope == IN_FIELD) {
+            fieldLiterals.addAll(literals);
+        } else if (scope == IN_METHOD) {
+            methodLiterals.addAll(literals);
+        }
+    }
+
+    /**
+     * check if the string literals appeared, like DuplicatedStringLiteralDetector
+     */
+    private void check(final List<Literal> literals, final Set<String> stringLiteralSet, final List<Finding> findings) {
+        for (Literal literal : literals) {
+            // like StringLiteralExpr.asString()
+            String value = StringEscapeUtils.unescapeJava(literal.value);
+            if (!stringLiteralSet.add(value)) {
+                findings.add(new Finding(DuplicatedStringLiteralDetector.NAME, path, literal.range,
+                        "duplicated string literal captured: [\"" + value + "\"]", "\"" + literal.value + "\""));
+            }
+        }
+    }
+
+    private boolean isIdentifier(final String identifier) {
+        return kind == IDENTIFIER && end - start == identifier.length() && source.startsWith(identifier, start);
+    }
+
+    private boolean isTypeKeyword() {
+        return isIdentifier("class") || isIdentifier("interface") || isIdentifier("enum");
+    }
+
+    private boolean isModifier() {
+        if (kind != IDENTIFIER) {
+            return false;
+        }
+        for (String modifier : MODIFIERS) {
+            if (isIdentifier(modifier)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void expect(final int expectedKind) {
+        if (kind != expectedKind) {
+            throw unexpected();
+        }
+    }
+
+    private void expectNotEnd() {
+        if (kind == EOF) {
+            throw new IllegalStateException("unexpected end of " + path);
+        }
+    }
+
+    private IllegalStateException unexpected() {
+        return new IllegalStateException("unexpected token in " + path + " at line " + line + ": "
+                + (kind == EOF ? "end of file" : source.substring(start, end)));
+    }
+
+    // lexer
+
+    /**
+     * Move to the next token, skipping whitespace and comments
+     */
+    private void advance() {
+        if (deadline != null) {
+            deadline.check();
+        }
+        previousKind = kind;
+        previousStart = start;
+        previousLength = end - start;
+        skipWhitespaceAndComments();
+        start = position;
+        if (position >= source.length()) {
+            kind = EOF;
+            end = position;
+            return;
+        }
+        char c = source.charAt(position);
+        Position begin = new Position(line, column);
+        if (c == '"') {
+            kind = STRING;
+            skipQuoted('"');
+            range = new Range(begin, new Position(line, column - 1));
+        } else if (c == '\'') {
+            kind = OTHER_LITERAL;
+            skipQuoted('\'');
+        } else if (Character.isJavaIdentifierStart(c)) {
+            kind = IDENTIFIER;
+            do {
+                next();
+            } while (position < source.length() && Character.isJavaIdentifierPart(source.charAt(position)));
+        } else if (Character.isDigit(c) || (c == '.' && position + 1 < source.length() && Character.isDigit(source.charAt(position + 1)))) {
+            kind = OTHER_LITERAL;
+            number();
+        } else {
+            // one char per token: the scanner never needs to tell "=" from "==" or ">" from ">>"
+            kind = c;
+            next();
+        }
+        end = position;
+        if ((previousKind == '=' && (kind == ';' || kind == ')' || kind == ']' || kind == '}' || kind == ','))
+                || (previousKind == ',' && kind == ')')) {
+            // a missing operand, not allowed anywhere in Java, whereas "A, B,;" ends the constants of an enum
+            throw unexpected();
+        }
+    }
+
+    private void skipWhitespaceAndComments() {
+        while (position < source.length()) {
+            char c = source.charAt(position);
+            if (c == ' ' || c == '\t' || c == '\f' || c == '\n' || c == '\r' || c == '\u001a') {
+                next();
+            } else if (c == '/' && source.startsWith("//", position)) {
+                while (position < source.length() && source.charAt(position) != '\n' && source.charAt(position) != '\r') {
+                    next();
+                }
+            } else if (c == '/' && source.startsWith("/*", position)) {
+                int close = source.indexOf("*/", position + 2);
+                if (close < 0) {
+                    throw new IllegalStateException("unterminated comment in " + path + " at line " + line);
+                }
+                while (position < close + 2) {
+                    next();
+                }
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipQuoted(final char quote) {
+        next();
+        while (true) {
+            char c = quotedChar();
+            next();
+            if (c == quote) {
+                return;
+            }
+            if (c == '\\') {
+                // the escaped char, which cannot end the file or the line either
+                quotedChar();
+                next();
+            }
+        }
+    }
+
+    /**
+     * @return next char of a literal
+     * @throws IllegalStateException if the literal ends with the file or the line
+     */
+    private char quotedChar() {
+        if (position >= source.length() || source.charAt(position) == '\n' || source.charAt(position) == '\r') {
+            throw new IllegalStateException("unterminated literal in " + path + " at line " + line);
+        }
+        return source.charAt(position);
+    }
+
+    /**
+     * digits, letters, underscores and dots, with the sign of an exponent
+     */
+    private void number() {
+        boolean isHex = source.startsWith("0x", position) || source.startsWith("0X", position);
+        while (position < source.length()) {
+            char c = source.charAt(position);
+            if (Character.isLetterOrDigit(c) || c == '_' || c == '.') {
+                next();
+            } else if ((c == '+' || c == '-') && isExponent(source.charAt(position - 1), isHex)) {
+                next();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static boolean isExponent(final char c, final boolean isHex) {
+        return isHex ? c == 'p' || c == 'P' : c == 'e' || c == 'E';
+    }
+
+    /**
+     * one char further, counting the lines like JavaParser: "\r\n" is a single line break
+     */
+    private void next() {
+        char c = source.charAt(position++);
+        if (c == '\n' || (c == '\r' && (position >= source.length() || source.charAt(position) != '\n'))) {
+            line++;
+            column = 1;
+        } else if (c != '\r') {
+            column++;
+        }
+    }
+}
@@ -1,20 +1,15 @@
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.DataKey;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.*;
 import com.github.javaparser.ast.expr.*;
-import com.github.javaparser.ast.stmt.BlockStmt;
-import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.nodeTypes.NodeWithImplements;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
-import com.github.javaparser.ast.type.VoidType;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
-import com.github.javaparser.printer.YamlPrinter;
 
-import java.io.File;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -24,41 +19,86 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
  */
 class MyBugFinder {
-    private static Set<String> stringVariableSet;
-    private static Set<String> definedMethodSet;
-    private static Set<String> stringLiteralSet;
-    private static CompilationUnit compilationUnit;
-    private static boolean isVerboseMode;
+    private final PrintStream out;
+    private final FindingSink findingSink;
+    private AnalysisSession session;
+    private int printedFindings;
+
+    MyBugFinder() {
+        this(System.out);
+    }
 
     /**
-     * Set the source code path and JavaParser compilationUnit for later inspection
+     * @param out stream that receives the inspection messages of this finder
+     */
+    MyBugFinder(final PrintStream out) {
+        this.out = out;
+        // the findings show up as soon as an inspection is done
+        this.findingSink = new TextReportFormat(new PrintWriter(out, true));
+    }
+
+    /**
+     * Set the source code path and JavaParser compilationUnit for later inspection.
+     * The sets the inspections depend on are only loaded by the first inspection needing them.
      * @param sourceCodePath path to the source code to be inspected by the MyBugFinder
      * @throws Exception capture FileNoFound error
      */
     void setSourceCode(final String sourceCodePath, final boolean isVerboseMode) throws Exception {
-        compilationUnit = StaticJavaParser.parse(new File(sourceCodePath));
-        MyBugFinder.isVerboseMode = isVerboseMode;
-        if (isVerboseMode) {
-            // print out the whole AST in YAML format
-            YamlPrinter printer = new YamlPrinter(true);
-            System.out.println(printer.output(compilationUnit));
-        }
-        loadStringVariableSet();
-        loadDefinedMethodSet();
+        session = new AnalysisSession(sourceCodePath, isVerboseMode, out);
+        printedFindings = 0;
     }
 
     /**
      * Initialization function for loading stringLiteralSet
      */
     boolean checkStringLiteral() {
-        stringLiteralSet = new HashSet<>();
+        return printFindings(checkStringLiteral(session));
+    }
+
+    /**
+     * Functionality 1: find BadStringComparison bugs
+     * @return BadStringComparison inspection result
+     */
+    boolean detectBadStringComparison() {
+        return printFindings(detectBadStringComparison(session));
+    }
+
+    /**
+     * Functionality 3 (Extra Credit): find NotImplementsCloneableWhenDefinesClone bugs
+     * Bug description: http://findbugs.sourceforge.net/bugDescriptions.html#CN_IMPLEMENTS_CLONE_BUT_NOT_CLONEABLE
+     * @return NotImplementsCloneableWhenDefinesClone inspection result
+     */
+    boolean implementsCloneableWhenDefinesClone() {
+        return printFindings(implementsCloneableWhenDefinesClone(session));
+    }
+
+    /**
+     * Print the findings the last inspection added to the session
+     * @param result result of the inspection, passed through
+     */
+    private boolean printFindings(final boolean result) {
+        List<Finding> findings = session.getFindings();
+        for (; printedFindings < findings.size(); printedFindings++) {
+            findingSink.finding(findings.get(printedFindings));
+        }
+        findingSink.flush();
+        return result;
+    }
+
+    /**
+     * Functionality 2: find duplicated string literals within the given session
+     * @return true if every string literal appears only once
+     */
+    static boolean checkStringLiteral(final AnalysisSession session) {
+        CompilationUnit compilationUnit = session.getCompilationUnit();
+        Set<String> stringLiteralSet = new HashSet<>();
         AtomicBoolean goodStringComparison = new AtomicBoolean();    // to be updated in lambda
         goodStringComparison.setOpaque(true);
 
         compilationUnit.findAll(FieldDeclaration.class).forEach(field -> field.getVariables().
                 forEach(variable -> variable.walk(node -> {
                     if (node instanceof StringLiteralExpr) {
-                        if (!checkStringLiteralExprNode(node)) {
+                        if (!checkStringLiteralExprNode(node, stringLiteralSet, session)) {
                             goodStringComparison.setOpaque(false);
                         }
                     }
@@ -66,7 +106,7 @@ class MyBugFinder {
 
         compilationUnit.findAll(MethodDeclaration.class).forEach(method -> method.walk(node -> {
             if (node instanceof StringLiteralExpr) {
-                if (!checkStringLiteralExprNode(node)) {
+                if (!checkStringLiteralExprNode(node, stringLiteralSet, session)) {
                     goodStringComparison.setOpaque(false);
                 }
             }
@@ -76,52 +116,35 @@ class MyBugFinder {
     }
 
     /**
-     * Functionality 1: find BadStringComparison bugs
+     * Functionality 1: find BadStringComparison bugs within the given session
      * @return BadStringComparison inspection result
      */
-    boolean detectBadStringComparison() {
+    static boolean detectBadStringComparison(final AnalysisSession session) {
+        IntSet stringVariableSet = session.getStringVariableSet();
         AtomicBoolean goodStringComparison = new AtomicBoolean();    // to be updated in lambda
         goodStringComparison.setOpaque(true);
-        compilationUnit.findAll(BodyDeclaration.class).forEach(method -> method.walk(node -> {
-            if (node instanceof BinaryExpr) {
-                BinaryExpr be = (BinaryExpr) node;
-                // check if operator is "==" or "!="
-                if (be.getOperator().asString().equals("==") || be.getOperator().asString().equals("!=")) {
-                    // check if left and right operands are String type
-                    if (stringVariableSet.contains(be.getLeft().toString()) && stringVariableSet.contains(be.getRight().toString())) {
-                        goodStringComparison.setOpaque(false);
-                        System.out.println("====== Bad String comparison captured: [" + be.toString() + "] ======");
-                    }
+        // walk each top-level type once: it contains all the nested declarations, so every expression is visited exactly once
+        session.getCompilationUnit().getTypes().forEach(type -> type.walk(BinaryExpr.class, be -> {
+            // check if operator is "==" or "!="
+            if (BadStringComparisonDetector.EQUALITY_OPERATORS.contains(be.getOperator())) {
+                // check if left and right operands are String type
+                if (stringVariableSet.contains(session.lookupName(be.getLeft())) && stringVariableSet.contains(session.lookupName(be.getRight()))) {
+                    goodStringComparison.setOpaque(false);
+                    session.report(BadStringComparisonDetector.NAME, be, "Bad String comparison captured: [" + be.toString() + "]");
                 }
             }
         }));
         return goodStringComparison.getOpaque();
     }
 
-    /**
-     * Initialization function for loading stringVariableSet
-     */
-    private void loadStringVariableSet() {
-        stringVariableSet = new HashSet<>();
-        compilationUnit.findAll(FieldDeclaration.class).forEach(field -> field.getVariables().forEach(variable -> {
-            // search all CLASS-LEVEL variables with "String" type
-            if (variable.getType().toString().equals("String")) {
-                stringVariableSet.add(variable.getNameAsString());
-                if (isVerboseMode) {
-                    System.out.println("====== New String variable loaded: " + variable.getNameAsString() + " ======");
-                }
-            }
-        }));
-    }
-
     /**
      * Functionality 2: check if the string literal appeared
      */
-    private boolean checkStringLiteralExprNode(Node node) {
+    private static boolean checkStringLiteralExprNode(Node node, Set<String> stringLiteralSet, AnalysisSession session) {
         String literal = ((StringLiteralExpr) node).asString();
         if (stringLiteralSet.contains(literal)) {
-            System.out.println("====== duplicated string literal captured: " +
-                    "[\"" + literal + "\"] ======");
+            session.report(DuplicatedStringLiteralDetector.NAME, node, "duplicated string literal captured: " +
+                    "[\"" + literal + "\"]");
             return false;
         } else {
             stringLiteralSet.add(literal);
@@ -130,50 +153,37 @@ class MyBugFinder {
     }
 
     /**
-     * Functionality 3 (Extra Credit): find NotImplementsCloneableWhenDefinesClone bugs
-     * Bug description: http://findbugs.sourceforge.net/bugDescriptions.html#CN_IMPLEMENTS_CLONE_BUT_NOT_CLONEABLE
+     * Functionality 3 (Extra Credit): find NotImplementsCloneableWhenDefinesClone bugs within the given session
      * @return NotImplementsCloneableWhenDefinesClone inspection result
      */
-    boolean implementsCloneableWhenDefinesClone() {
+    static boolean implementsCloneableWhenDefinesClone(final AnalysisSession session) {
         // check if define clone() method
-        if (definedMethodSet.contains("clone")) {
-            ClassOrInterfaceDeclaration type = (ClassOrInterfaceDeclaration) compilationUnit.getType(0);
-            List<ClassOrInterfaceType> implementedInterfaces = type.getImplementedTypes();
+        if (session.getDefinedMethodSet().contains(session.getSymbolTable().lookup("clone"))) {
+            TypeDeclaration<?> type = session.getCompilationUnit().getType(0);
+            // e.g. an enum implements interfaces too, an annotation cannot
+            List<ClassOrInterfaceType> implementedInterfaces = type instanceof NodeWithImplements
+                    ? ((NodeWithImplements<?>) type).getImplementedTypes() : Collections.emptyList();
             // check if "Cloneable" interface gets implemented
             for (ClassOrInterfaceType implementedInterface : implementedInterfaces) {
                 String implementedInterfaceName = implementedInterface.getNameAsString();
-                if (isVerboseMode) {
-                    System.out.println("====== New interface found: " + implementedInterfaceName + " ======");
+                if (session.isVerboseMode()) {
+                    session.getOut().println("====== New interface found: " + implementedInterfaceName + " ======");
                 }
                 if (implementedInterfaceName.equals("Cloneable")) {
                     return true;
                 }
             }
-            System.out.println("====== New NotImplementsCloneableWhenDefinesClone bug found ======");
+            session.report(CloneableDetector.NAME, findCloneMethod(session), "New NotImplementsCloneableWhenDefinesClone bug found");
             return false;
         }
         return true;    // if not define clone() method, directly return true
     }
 
     /**
-     * Initialization function for loading definedMethodSet
+     * @return the first clone() method of the file, skipping the ones local to another method like definedMethodSet does
      */
-    private void loadDefinedMethodSet() {
-        definedMethodSet = new HashSet<>();
-        // visit and print the methods names
-        new MethodVisitor().visit(compilationUnit, null);
-    }
-
-    /**
-     * Simple visitor implementation for visiting MethodDeclaration nodes
-     */
-    private class MethodVisitor extends VoidVisitorAdapter {
-        @Override
-        public void visit(MethodDeclaration md, Object arg) {
-            definedMethodSet.add(md.getNameAsString());
-            if (isVerboseMode) {
-                System.out.println("====== New method name loaded: " + md.getNameAsString() + " ======");
-            }
-        }
+    private static MethodDeclaration findCloneMethod(final AnalysisSession session) {
+        return session.getCompilationUnit().findFirst(MethodDeclaration.class, md -> md.getNameAsString().equals("clone")
+                && !md.findAncestor(MethodDeclaration.class).isPresent()).get();
     }
 }
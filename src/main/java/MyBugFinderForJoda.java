@@ -1,7 +1,13 @@
-import java.io.File;
-import java.util.ArrayList;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.List;
+import java.util.HashSet;
 
 /**
  * MyBugFinderForJoda is for finding target bugs in different versions of Joda-time
@@ -9,11 +15,71 @@ import java.util.List;
  * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
  */
 public class MyBugFinderForJoda {
-    private static List<String> javaFilesPathList;
-
     public static void main(String[] args) {
+        Path rootDirectory = Paths.get("src/main/resourse/JodaFiles/JodaTime-pre-abstract");
+        Path outputPath = null;
+        String format = "text";
+        EngineOptions options = new EngineOptions();
+        for (String arg : args) {
+            // e.g. "--root=src/main/resourse/JodaFiles/joda-time-2.0" or "--workers=32"
+            if (arg.startsWith("--root=")) {
+                rootDirectory = Paths.get(arg.substring("--root=".length()));
+            } else if (arg.startsWith("--workers=")) {
+                options.setWorkers(Integer.parseInt(arg.substring("--workers=".length())));
+            } else if (arg.startsWith("--read-threads=")) {
+                options.setReadThreads(Integer.parseInt(arg.substring("--read-threads=".length())));
+            } else if (arg.startsWith("--parse-threads=")) {
+                options.setParseThreads(Integer.parseInt(arg.substring("--parse-threads=".length())));
+            } else if (arg.startsWith("--detect-threads=")) {
+                options.setDetectThreads(Integer.parseInt(arg.substring("--detect-threads=".length())));
+            } else if (arg.startsWith("--cache=")) {
+                options.setCacheDirectory(Paths.get(arg.substring("--cache=".length())));
+            } else if (arg.startsWith("--max-failures=")) {
+                options.setFailureBudget(Integer.parseInt(arg.substring("--max-failures=".length())));
+            } else if (arg.startsWith("--file-timeout=")) {
+                // in milliseconds
+                options.setFileTimeout(Long.parseLong(arg.substring("--file-timeout=".length())));
+            } else if (arg.startsWith("--slowest=")) {
+                options.setSlowestFileCount(Integer.parseInt(arg.substring("--slowest=".length())));
+            } else if (arg.startsWith("--output=")) {
+                outputPath = Paths.get(arg.substring("--output=".length()));
+            } else if (arg.startsWith("--format=")) {
+                // "text", "json" or "sarif"
+                format = arg.substring("--format=".length());
+            } else if (arg.equals("--multi-pass")) {
+                options.setMultiPassMode(true);
+            } else if (arg.equals("--timings")) {
+                options.setTimingMode(true);
+            } else if (arg.startsWith("--type-cache-size=")) {
+                options.setTypeCacheSize(Long.parseLong(arg.substring("--type-cache-size=".length())));
+            } else if (arg.startsWith("--type-cache=")) {
+                options.setTypeCacheFile(Paths.get(arg.substring("--type-cache=".length())));
+            } else if (arg.equals("--project-literals")) {
+                options.setProjectLiteralMode(true);
+            } else if (arg.equals("--approximate-literals")) {
+                options.setProjectLiteralMode(true);
+                options.setApproximateLiteralMode(true);
+            } else if (arg.startsWith("--literal-memory=")) {
+                // in megabytes
+                options.setLiteralMemoryCeiling(Long.parseLong(arg.substring("--literal-memory=".length())) * 1024 * 1024);
+            } else if (arg.startsWith("--rules=")) {
+                // e.g. "--rules=BadStringComparison,DuplicatedStringLiteral", the other inspections are not run at all
+                options.setRules(new HashSet<>(Arrays.asList(arg.substring("--rules=".length()).split(","))));
+            } else if (arg.equals("--full-parse")) {
+                // parse the files even when the duplicated literals are the only inspection
+                options.setLiteralScannerEnabled(false);
+            } else if (arg.equals("--project-hierarchy")) {
+                options.setProjectHierarchyMode(true);
+            } else if (arg.equals("--resolved")) {
+                options.setResolvedMode(true);
+            }
+        }
         try {
-            findBugsInJoda();
+            if (options.isResolvedMode()) {
+                // the types of the Joda-time classes are looked up in the sources being inspected
+                options.setSourceRoots(TypeResolution.findSourceRoots(rootDirectory));
+            }
+            findBugsInJoda(rootDirectory, new BugFinderEngine(options), outputPath, format);
         } catch (Exception e) {
             System.out.println(e.getMessage());
         }
@@ -21,43 +87,43 @@ public class MyBugFinderForJoda {
 
     /**
      * find target bugs within all .java files inside Joda-time
+     * @param rootDirectory root directory of the Joda-time version to be inspected
+     * @param engine engine running the inspections
+     * @param outputPath file receiving the reports, or null for the console
+     * @param format format of the reports: "text", "json" or "sarif"
      * @throws Exception
      */
-    private static void findBugsInJoda() throws Exception {
-        MyBugFinder myBugFinder = new MyBugFinder();
-        javaFilesPathList = new ArrayList<>();
-        getJavaFilesList(new File("").getAbsolutePath().concat("/src/main/resourse/JodaFiles/JodaTime-pre-abstract"));
-
-        // analyze each java file one by one
-        for (String javaFilesPath : javaFilesPathList) {
-            System.out.println("Analyzing: " + javaFilesPath);
-            myBugFinder.setSourceCode(javaFilesPath, false);
-            myBugFinder.detectBadStringComparison();
-            myBugFinder.implementsCloneableWhenDefinesClone();
-            myBugFinder.checkStringLiteral();
+    private static void findBugsInJoda(final Path rootDirectory, final BugFinderEngine engine, final Path outputPath,
+                                       final String format) throws Exception {
+        Writer writer = outputPath == null ? new BufferedWriter(new OutputStreamWriter(System.out))
+                : Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8);
+        try {
+            // the reports are written by a background thread, batch by batch
+            try (FindingSink findingSink = new AsyncReportWriter(newReportFormat(format, new PrintWriter(writer)))) {
+                // analyze the java files in parallel while they are being discovered, reports still come out in file order,
+                // an aborted run stops the walk
+                try (JavaFileDiscovery javaFilesPaths = JavaFileDiscovery.start(rootDirectory)) {
+                    engine.analyze(javaFilesPaths, findingSink, report -> { });
+                }
+            }
+        } finally {
+            // System.out stays open for the error message of main
+            if (outputPath != null) {
+                writer.close();
+            }
         }
     }
 
-    /**
-     * helper function to find all .java files inside Joda-time
-     * @param directoryPath root directory path to begin searching
-     * @return a list of files as the iteration result
-     */
-    private static List<File> getJavaFilesList(String directoryPath) {
-        File directory = new File(directoryPath);
-        // get all the files from a directory
-        File[] fList = directory.listFiles();
-        assert fList != null;
-        List<File> resultList = new ArrayList<>(Arrays.asList(fList));
-        for (File file : fList) {
-            if (file.isFile()) {
-                if (file.getName().endsWith(".java")) {
-                    javaFilesPathList.add(file.getAbsolutePath());
-                }
-            } else if (file.isDirectory()) {
-                resultList.addAll(getJavaFilesList(file.getAbsolutePath()));
-            }
+    private static FindingSink newReportFormat(final String format, final PrintWriter out) {
+        switch (format) {
+            case "text":
+                return new TextReportFormat(out);
+            case "json":
+                return new JsonReportFormat(out);
+            case "sarif":
+                return new SarifReportFormat(out);
+            default:
+                throw new IllegalArgumentException("unknown report format: " + format);
         }
-        return resultList;
     }
 }
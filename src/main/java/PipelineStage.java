@@ -0,0 +1,95 @@
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PipelineStage is one step of the BugFinderEngine pipeline: a fixed number of threads taking FileTasks from
+ * a bounded input queue, working on them and putting them into the output queue. A full output queue blocks
+ * the stage, which is how backpressure travels upstream. A task that already failed, or that already has its
+ * report (e.g. from the AnalysisCache), is passed on untouched. A failure, be it an exception or an error,
+ * only fails the task it happened on.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class PipelineStage {
+    /**
+     * The work done by a stage on a single file
+     */
+    interface Work {
+        void process(FileTask task) throws Exception;
+    }
+
+    private final String name;
+    private final int threadCount;
+    private final BlockingQueue<FileTask> input;
+    private final BlockingQueue<FileTask> output;
+    private final Work work;
+    private final AtomicInteger runningThreads;
+
+    /**
+     * @param name name of the stage, used for its threads
+     * @param threadCount thread budget of the stage
+     * @param input queue of the tasks to be processed, ended by FileTask.END
+     * @param output queue receiving the processed tasks, followed by FileTask.END once all the threads are done
+     * @param work work to be done on every task
+     */
+    PipelineStage(final String name, final int threadCount, final BlockingQueue<FileTask> input,
+                  final BlockingQueue<FileTask> output, final Work work) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException(name + " stage needs at least one thread: " + threadCount);
+        }
+        this.name = name;
+        this.threadCount = threadCount;
+        this.input = input;
+        this.output = output;
+        this.work = work;
+        this.runningThreads = new AtomicInteger(threadCount);
+    }
+
+    /**
+     * Start the threads of the stage
+     * @param threads collects the started threads so that the engine can stop them
+     */
+    void start(final List<Thread> threads) {
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(this::run, name + "-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                FileTask task = input.take();
+                if (task == FileTask.END) {
+                    // let the other threads of this stage see the end too, the last one forwards it
+                    input.put(FileTask.END);
+                    if (runningThreads.decrementAndGet() == 0) {
+                        output.put(FileTask.END);
+                    }
+                    return;
+                }
+                if (task.failure == null && task.report == null) {
+                    try {
+                        work.process(task);
+                    } catch (Exception e) {
+                        task.failure = e;
+                    } catch (StackOverflowError e) {
+                        // e.g. deeply nested expressions: only this file is lost, the thread has unwound and goes on
+                        task.failure = new IllegalStateException("stack overflow in the " + name + " stage", e);
+                    } catch (Throwable t) {
+                        // any other error, e.g. an AssertionError or an OutOfMemoryError on a huge file: a dead thread
+                        // would never forward the task nor the end, and the engine would wait for them forever
+                        task.failure = new IllegalStateException(t.getClass().getSimpleName() + " in the " + name + " stage", t);
+                    }
+                }
+                output.put(task);
+            }
+        } catch (InterruptedException e) {
+            // the engine is shutting the pipeline down
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import com.github.javaparser.Range;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * ProjectLiteralIndex is the exact LiteralIndex: it keeps every occurrence of every literal of the run.
+ * The literals are the keys of a ConcurrentHashMap, which only locks the bin of a new literal, and their occurrences
+ * are appended to lock-free queues, so workers adding different literals never wait for each other.
+ * Once the run is over, every literal found in more than one file is reported with all of its occurrence sites.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class ProjectLiteralIndex implements LiteralIndex {
+    static final String NAME = "ProjectDuplicatedStringLiteral";
+
+    private static final Comparator<Occurrence> BY_SITE = Comparator.comparing((Occurrence occurrence) -> occurrence.path)
+            .thenComparing(occurrence -> occurrence.range.begin);
+
+    /**
+     * where a literal appears, kept apart from the AST so the compilationUnit of the file can be collected
+     */
+    private static final class Occurrence {
+        private final String path;
+        private final Range range;
+
+        private Occurrence(final String path, final Range range) {
+            this.path = path;
+            this.range = range;
+        }
+    }
+
+    private final Map<String, Queue<Occurrence>> occurrences = new ConcurrentHashMap<>();
+
+    /**
+     * @param path path of the inspected file
+     * @param literals string literals of the file, the ones without a position are skipped
+     */
+    @Override
+    public void add(final String path, final Collection<StringLiteralExpr> literals) {
+        for (StringLiteralExpr literal : literals) {
+            if (!literal.getRange().isPresent()) {
+                continue;
+            }
+            String value = literal.asString();
+            Queue<Occurrence> sites = occurrences.get(value);
+            if (sites == null) {
+                sites = occurrences.computeIfAbsent(value, key -> new ConcurrentLinkedQueue<>());
+            }
+            sites.add(new Occurrence(path, literal.getRange().get()));
+        }
+    }
+
+    @Override
+    public int size() {
+        return occurrences.size();
+    }
+
+    @Override
+    public List<Finding> getDuplicatedLiterals() {
+        // sorted, so the report does not depend on the order the threads added the files in
+        Map<String, List<Occurrence>> duplicatedLiterals = new TreeMap<>();
+        for (Map.Entry<String, Queue<Occurrence>> entry : occurrences.entrySet()) {
+            Set<String> paths = new HashSet<>();
+            for (Occurrence occurrence : entry.getValue()) {
+                paths.add(occurrence.path);
+            }
+            if (paths.size() > 1) {
+                List<Occurrence> sites = new ArrayList<>(entry.getValue());
+                sites.sort(BY_SITE);
+                duplicatedLiterals.put(entry.getKey(), sites);
+            }
+        }
+
+        List<Finding> findings = new ArrayList<>();
+        for (Map.Entry<String, List<Occurrence>> entry : duplicatedLiterals.entrySet()) {
+            String snippet = "\"" + entry.getKey() + "\"";
+            List<Occurrence> sites = entry.getValue();
+            for (int i = 0; i < sites.size(); i++) {
+                Occurrence site = sites.get(i);
+                findings.add(new Finding(NAME, site.path, site.range, "duplicated string literal across files captured: [" + snippet
+                        + "] at " + site.path + ":" + site.range.begin.line + ":" + site.range.begin.column
+                        + " (" + (i + 1) + " of " + sites.size() + ")", snippet));
+            }
+        }
+        return findings;
+    }
+}
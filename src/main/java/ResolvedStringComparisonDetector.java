@@ -0,0 +1,67 @@
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.Expression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resolved version of BadStringComparisonDetector. Instead of matching the names of the CLASS-LEVEL fields
+ * declared as "String", it asks the symbol solver for the type of both operands, so local variables, parameters,
+ * method calls and fields declared as java.lang.String are checked as well. Operands that cannot be resolved
+ * are not reported.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class ResolvedStringComparisonDetector implements Detector {
+    private final TypeResolution typeResolution;
+    private final List<BinaryExpr> comparisons = new ArrayList<>();
+
+    /**
+     * @param typeResolution type resolution shared by all the files of the run
+     */
+    ResolvedStringComparisonDetector(final TypeResolution typeResolution) {
+        this.typeResolution = typeResolution;
+    }
+
+    @Override
+    public String getName() {
+        return BadStringComparisonDetector.NAME;
+    }
+
+    @Override
+    public List<Class<? extends Node>> getNodeTypes() {
+        return Collections.singletonList(BinaryExpr.class);
+    }
+
+    @Override
+    public void visit(Node node) {
+        BinaryExpr be = (BinaryExpr) node;
+        // check if operator is "==" or "!=", and skip the comparisons that cannot be between Strings
+        if (BadStringComparisonDetector.EQUALITY_OPERATORS.contains(be.getOperator())
+                && mayBeString(be.getLeft()) && mayBeString(be.getRight())) {
+            comparisons.add(be);
+        }
+    }
+
+    @Override
+    public boolean finish(AnalysisSession session) {
+        boolean goodStringComparison = true;
+        for (BinaryExpr be : comparisons) {
+            // check if left and right operands are String type
+            if (typeResolution.isString(be.getLeft()) && typeResolution.isString(be.getRight())) {
+                goodStringComparison = false;
+                session.report(BadStringComparisonDetector.NAME, be, "Bad String comparison captured: [" + be.toString() + "]");
+            }
+        }
+        return goodStringComparison;
+    }
+
+    /**
+     * null, number, character and boolean literals are never Strings, no need to ask the symbol solver
+     */
+    private static boolean mayBeString(final Expression operand) {
+        return !operand.isLiteralExpr() || operand.isStringLiteralExpr();
+    }
+}
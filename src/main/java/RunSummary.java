@@ -0,0 +1,123 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * RunSummary adds up the reports of a BugFinderEngine run: how many files were analyzed, recovered from
+ * parse errors, failed or timed out, the time spent in every stage and the slowest files.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class RunSummary {
+    private static final Comparator<FileReport> BY_TOTAL_TIME = Comparator.comparingLong(RunSummary::totalNanos);
+
+    private final int slowestFileCount;
+    // the fastest of the slowest files on top, so it is the one to go when a slower file comes
+    private final PriorityQueue<FileReport> slowestFiles = new PriorityQueue<>(BY_TOTAL_TIME);
+    private int files;
+    private int recoveredFiles;
+    private int failedFiles;
+    private int parseFailures;
+    private int timedOutFiles;
+    private int secondPassFailures;
+    private long totalBytes;
+    private long totalReadNanos;
+    private long totalParseNanos;
+    private long totalTraversalNanos;
+
+    /**
+     * @param slowestFileCount number of the slowest files to be listed
+     */
+    RunSummary(final int slowestFileCount) {
+        this.slowestFileCount = slowestFileCount;
+    }
+
+    /**
+     * @param report report of the next file of the run
+     */
+    void add(final FileReport report) {
+        files++;
+        if (report.isFailed()) {
+            failedFiles++;
+            if (report.isParseFailure()) {
+                parseFailures++;
+            } else if (report.isTimedOut()) {
+                timedOutFiles++;
+            }
+        } else if (!report.getParseProblems().isEmpty()) {
+            recoveredFiles++;
+        }
+        totalBytes += report.getSizeBytes();
+        totalReadNanos += report.getReadNanos();
+        totalParseNanos += report.getParseNanos();
+        totalTraversalNanos += report.getTraversalNanos();
+
+        if (slowestFileCount > 0) {
+            slowestFiles.add(report);
+            if (slowestFiles.size() > slowestFileCount) {
+                slowestFiles.poll();
+            }
+        }
+    }
+
+    /**
+     * A file analyzed by the first pass failed the second pass of the approximate literal mode
+     */
+    void addSecondPassFailure() {
+        secondPassFailures++;
+    }
+
+    int getFiles() {
+        return files;
+    }
+
+    /**
+     * @return number of failures counting against the failure budget, in either pass
+     */
+    int getFailedFiles() {
+        return failedFiles + secondPassFailures;
+    }
+
+    /**
+     * @param findingSink receives the summary as notes
+     * @param isTimingMode also write the total time spent in every stage
+     * @param mode inspection mode of the run, e.g. "single-pass"
+     */
+    void write(final FindingSink findingSink, final boolean isTimingMode, final String mode) {
+        if (isTimingMode) {
+            findingSink.note("Total read time: " + toMillis(totalReadNanos) + " ms, parse time: " + toMillis(totalParseNanos) + " ms, "
+                    + "traversal time (" + mode + "): " + toMillis(totalTraversalNanos) + " ms for " + files + " files");
+            // the read stage on its own: compare with the parse time to tell whether the run is I/O or CPU bound
+            findingSink.note("Read throughput: " + String.format("%.3f", totalBytes / 1_000_000.0) + " MB in "
+                    + toMillis(totalReadNanos) + " ms, " + String.format("%.1f", megabytesPerSecond()) + " MB/s");
+        }
+        if (slowestFileCount > 0) {
+            List<FileReport> slowest = new ArrayList<>(slowestFiles);
+            slowest.sort(BY_TOTAL_TIME.reversed());
+            findingSink.note("Slowest " + slowest.size() + " files:");
+            for (FileReport report : slowest) {
+                findingSink.note("  " + report.getPath() + ": " + toMillis(totalNanos(report)) + " ms (read " + toMillis(report.getReadNanos())
+                        + " ms, parse " + toMillis(report.getParseNanos()) + " ms, traversal " + toMillis(report.getTraversalNanos()) + " ms)"
+                        + (report.isTimedOut() ? " timed out" : ""));
+            }
+        }
+        findingSink.note("Run summary: " + files + " files, " + (files - failedFiles) + " analyzed ("
+                + recoveredFiles + " with recovered parse errors), " + failedFiles + " failed ("
+                + parseFailures + " parse failures, " + timedOutFiles + " timeouts)"
+                + (secondPassFailures > 0 ? ", " + secondPassFailures + " failed the second literal pass" : ""));
+    }
+
+    private double megabytesPerSecond() {
+        // bytes per nanosecond is 1000 MB/s
+        return totalReadNanos == 0 ? 0 : totalBytes * 1000.0 / totalReadNanos;
+    }
+
+    static String toMillis(final long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+
+    private static long totalNanos(final FileReport report) {
+        return report.getReadNanos() + report.getParseNanos() + report.getTraversalNanos();
+    }
+}
@@ -0,0 +1,117 @@
+import com.github.javaparser.Range;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SarifReportFormat writes the reports as a SARIF 2.1.0 log with a single run. The results are written
+ * as they arrive, one per line, and the log is completed by close(). SARIF has no place for free text,
+ * so the notes, e.g. the timings, are kept until close() and written into the property bag of the run.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class SarifReportFormat implements FindingSink {
+    private static final Map<String, String> RULE_DESCRIPTIONS = new LinkedHashMap<>();
+
+    static {
+        RULE_DESCRIPTIONS.put(BadStringComparisonDetector.NAME, "Strings compared with == or !=");
+        RULE_DESCRIPTIONS.put(CloneableDetector.NAME, "Class defines clone() but does not implement Cloneable");
+        RULE_DESCRIPTIONS.put(DuplicatedStringLiteralDetector.NAME, "String literal duplicated within a file");
+        RULE_DESCRIPTIONS.put(ProjectLiteralIndex.NAME, "String literal duplicated across files");
+    }
+
+    private final PrintWriter out;
+    private final List<String> notes = new ArrayList<>();
+    private boolean started;
+    private boolean firstResult = true;
+    private boolean closed;
+
+    /**
+     * @param out writer receiving the log, flushed only by flush() unless it flushes itself
+     */
+    SarifReportFormat(final PrintWriter out) {
+        this.out = out;
+    }
+
+    /**
+     * Files without findings leave no trace in the results
+     */
+    @Override
+    public void beginFile(final String path) {
+        start();
+    }
+
+    @Override
+    public void finding(final Finding finding) {
+        start();
+        StringBuilder result = new StringBuilder(firstResult ? "" : ",").append(System.lineSeparator())
+                .append("{\"ruleId\":").append(Json.quote(finding.getRuleId()))
+                .append(",\"level\":\"warning\",\"message\":{\"text\":").append(Json.quote(finding.getMessage())).append('}')
+                .append(",\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":")
+                .append(Json.quote(Paths.get(finding.getPath()).toUri().toString())).append("},\"region\":{");
+        if (finding.getRange().isPresent()) {
+            // SARIF columns start at 1 like JavaParser ones, but the end column is exclusive
+            Range range = finding.getRange().get();
+            result.append("\"startLine\":").append(range.begin.line).append(",\"startColumn\":").append(range.begin.column)
+                    .append(",\"endLine\":").append(range.end.line).append(",\"endColumn\":").append(range.end.column + 1).append(',');
+        }
+        result.append("\"snippet\":{\"text\":").append(Json.quote(finding.getSnippet())).append("}}}}]}");
+        out.print(result);
+        firstResult = false;
+    }
+
+    @Override
+    public void note(final String text) {
+        start();
+        notes.add(text);
+    }
+
+    @Override
+    public void flush() {
+        // PrintWriter keeps its errors to itself
+        if (out.checkError()) {
+            throw new UncheckedIOException(new IOException("cannot write the report"));
+        }
+    }
+
+    /**
+     * Complete the log, which is not valid SARIF before
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        start();
+        StringBuilder end = new StringBuilder(System.lineSeparator()).append("],\"properties\":{\"notes\":[");
+        for (int i = 0; i < notes.size(); i++) {
+            end.append(i == 0 ? "" : ",").append(Json.quote(notes.get(i)));
+        }
+        out.println(end.append("]}}]}"));
+        flush();
+    }
+
+    private void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        StringBuilder header = new StringBuilder("{\"version\":\"2.1.0\",")
+                .append("\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\",")
+                .append("\"runs\":[{\"tool\":{\"driver\":{\"name\":\"MyBugFinder\",\"rules\":[");
+        String separator = "";
+        for (Map.Entry<String, String> rule : RULE_DESCRIPTIONS.entrySet()) {
+            header.append(separator).append("{\"id\":").append(Json.quote(rule.getKey()))
+                    .append(",\"shortDescription\":{\"text\":").append(Json.quote(rule.getValue())).append("}}");
+            separator = ",";
+        }
+        out.print(header.append("]}},\"results\":["));
+    }
+}
@@ -0,0 +1,86 @@
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+
+/**
+ * SourceParser parses .java files with an explicit ParserConfiguration instead of the global one of StaticJavaParser.
+ * A JavaParser instance is not thread-safe, so every thread gets its own, created once and reused for all its files.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class SourceParser {
+    private final boolean attributeComments;
+    private final ThreadLocal<JavaParser> javaParser;
+    private final SourceReader sourceReader = new SourceReader();
+
+    /**
+     * @param attributeComments attach comments to the nodes, only needed when an inspection reads them
+     */
+    SourceParser(final boolean attributeComments) {
+        this.attributeComments = attributeComments;
+        this.javaParser = ThreadLocal.withInitial(() -> new JavaParser(newConfiguration(attributeComments)));
+    }
+
+    boolean isAttributeComments() {
+        return attributeComments;
+    }
+
+    /**
+     * @param source source code of a compilation unit
+     * @return the parsed compilationUnit
+     * @throws ParseProblemException if the source code cannot be parsed, like StaticJavaParser
+     */
+    CompilationUnit parse(final String source) {
+        return handleResult(javaParser.get().parse(source));
+    }
+
+    /**
+     * Parse without giving up on the first error: JavaParser skips the statements it cannot make sense of
+     * @param source source code of a compilation unit
+     * @return the result of JavaParser, holding a compilationUnit whenever the parser could recover
+     */
+    ParseResult<CompilationUnit> parseRecovering(final String source) {
+        return javaParser.get().parse(source);
+    }
+
+    /**
+     * Like parseRecovering(String), reading the source code as the parser goes
+     * @param source source code of a compilation unit
+     * @return the result of JavaParser, holding a compilationUnit whenever the parser could recover
+     */
+    ParseResult<CompilationUnit> parseRecovering(final Reader source) {
+        return javaParser.get().parse(source);
+    }
+
+    /**
+     * @param path path to a UTF-8 encoded .java file
+     * @return the parsed compilationUnit
+     * @throws IOException if the file cannot be read
+     * @throws ParseProblemException if the source code cannot be parsed, like StaticJavaParser
+     */
+    CompilationUnit parse(final Path path) throws IOException {
+        return parse(sourceReader.decode(sourceReader.read(path)));
+    }
+
+    private static ParserConfiguration newConfiguration(final boolean attributeComments) {
+        return new ParserConfiguration()
+                // the Joda-time sources are Java 5 code, nothing newer than Java 8 syntax is needed
+                .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_8)
+                .setAttributeComments(attributeComments)
+                // the AST is only inspected, never printed back to source code
+                .setLexicalPreservationEnabled(false);
+    }
+
+    private static CompilationUnit handleResult(final ParseResult<CompilationUnit> result) {
+        if (result.isSuccessful() && result.getResult().isPresent()) {
+            return result.getResult().get();
+        }
+        throw new ParseProblemException(result.getProblems());
+    }
+}
@@ -0,0 +1,119 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * SourceReader loads UTF-8 source files without a Reader and without a fresh byte[] per file. Small files are
+ * read through a FileChannel into a direct ByteBuffer, large ones are memory-mapped; either way the bytes are
+ * decoded by a CharsetDecoder into a CharBuffer. The buffers and the decoder belong to the calling thread and
+ * are reused for all its files, growing to the largest file seen.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class SourceReader {
+    // below this size reading into the pooled buffer is cheaper than setting up a mapping
+    private static final int MAPPING_THRESHOLD = 1 << 20;
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * @param path path of the file
+     * @return the content of the file, valid until the next call to read on this thread
+     * @throws IOException if the file cannot be read
+     */
+    ByteBuffer read(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("file too large: " + path);
+            }
+            if (size >= MAPPING_THRESHOLD) {
+                // the mapping stays valid once the channel is closed
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            ByteBuffer content = buffers.get().byteBuffer((int) size);
+            // read until the buffer is full or the file ends, whichever comes first
+            int count = 0;
+            while (content.hasRemaining() && count != -1) {
+                count = channel.read(content);
+            }
+            content.flip();
+            return content;
+        }
+    }
+
+    /**
+     * Decode UTF-8 content like new String(bytes, UTF_8) does, malformed input included
+     * @param content bytes returned by read, consumed
+     * @return the decoded source code
+     */
+    String decode(final ByteBuffer content) {
+        Buffers threadBuffers = buffers.get();
+        CharsetDecoder decoder = threadBuffers.decoder.reset();
+        // UTF-8 never decodes to more chars than it has bytes
+        CharBuffer chars = threadBuffers.charBuffer((int) (content.remaining() * (double) decoder.maxCharsPerByte()));
+        try {
+            CoderResult result = decoder.decode(content, chars, true);
+            if (!result.isUnderflow()) {
+                result.throwException();
+            }
+            result = decoder.flush(chars);
+            if (!result.isUnderflow()) {
+                result.throwException();
+            }
+        } catch (CharacterCodingException e) {
+            // malformed input is replaced, only a decoder bug gets here
+            throw new IllegalStateException(e);
+        }
+        chars.flip();
+        return chars.toString();
+    }
+
+    /**
+     * Buffers and decoder of one thread
+     */
+    private static class Buffers {
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private ByteBuffer byteBuffer = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+        private CharBuffer charBuffer = CharBuffer.allocate(INITIAL_CAPACITY);
+
+        /**
+         * @return the pooled direct buffer, cleared and limited to size bytes
+         */
+        ByteBuffer byteBuffer(final int size) {
+            if (byteBuffer.capacity() < size) {
+                byteBuffer = ByteBuffer.allocateDirect(grow(size));
+            }
+            byteBuffer.clear().limit(size);
+            return byteBuffer;
+        }
+
+        /**
+         * @return the pooled char buffer, cleared, with room for at least size chars
+         */
+        CharBuffer charBuffer(final int size) {
+            if (charBuffer.capacity() < size) {
+                charBuffer = CharBuffer.allocate(grow(size));
+            }
+            charBuffer.clear();
+            return charBuffer;
+        }
+
+        private static int grow(final int size) {
+            // next power of two, so that a tree of growing files does not reallocate for each one
+            int capacity = Integer.highestOneBit(Math.max(size, 1));
+            return capacity == size || capacity >= 1 << 30 ? size : capacity << 1;
+        }
+    }
+}
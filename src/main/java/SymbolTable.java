@@ -0,0 +1,76 @@
+import java.util.Arrays;
+
+/**
+ * SymbolTable interns the names of one file: every distinct name gets an int id, starting from 0, so that
+ * the sets of names are IntSets. Looking up a name allocates nothing; it relies on the hash code that a String
+ * caches, and on equals for the final comparison.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+final class SymbolTable {
+    /**
+     * id of the names that were never interned
+     */
+    static final int NO_ID = -1;
+
+    private String[] names = new String[16];
+    // id + 1 of the name stored in the slot, 0 for an empty slot
+    private int[] slots = new int[32];
+    private int size;
+
+    /**
+     * @param name any name
+     * @return the id of the name, assigning the next one if the name is new
+     */
+    int intern(final String name) {
+        int slot = find(slots, name);
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        names[size] = name;
+        slots[slot] = ++size;
+        if (size * 2 > slots.length) {
+            grow();
+        }
+        return size - 1;
+    }
+
+    /**
+     * @param name any name
+     * @return the id of the name, or NO_ID if it was never interned
+     */
+    int lookup(final String name) {
+        return slots[find(slots, name)] - 1;
+    }
+
+    /**
+     * @param id id returned by intern
+     */
+    String nameOf(final int id) {
+        return names[id];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int find(final int[] slots, final String name) {
+        int mask = slots.length - 1;
+        int slot = IntSet.mix(name.hashCode()) & mask;
+        while (slots[slot] != 0 && !names[slots[slot] - 1].equals(name)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] grown = new int[slots.length * 2];
+        for (int id = 0; id < size; id++) {
+            grown[find(grown, names[id])] = id + 1;
+        }
+        slots = grown;
+    }
+}
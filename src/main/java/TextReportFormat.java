@@ -0,0 +1,48 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * TextReportFormat writes the reports in the console format MyBugFinder always used:
+ * an "Analyzing:" line per file followed by one "====== ... ======" line per finding.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class TextReportFormat implements FindingSink {
+    private final PrintWriter out;
+
+    /**
+     * @param out writer receiving the report, flushed only by flush() unless it flushes itself
+     */
+    TextReportFormat(final PrintWriter out) {
+        this.out = out;
+    }
+
+    @Override
+    public void beginFile(final String path) {
+        out.println("Analyzing: " + path);
+    }
+
+    @Override
+    public void finding(final Finding finding) {
+        out.println("====== " + finding.getMessage() + " ======");
+    }
+
+    @Override
+    public void note(final String text) {
+        out.println(text);
+    }
+
+    @Override
+    public void flush() {
+        // PrintWriter keeps its errors to itself
+        if (out.checkError()) {
+            throw new UncheckedIOException(new IOException("cannot write the report"));
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,170 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * TypeHierarchyIndex knows the direct supertypes of every class, interface and enum of a run, fed concurrently by the
+ * detect threads. A supertype is kept as the list of qualified names it may stand for, in the order Java looks them
+ * up, since the file declaring it may not have been scanned yet. Once the scan is over, complete() resolves each to
+ * its first candidate found among the scanned types or in the JDK, and computes once for every type whether it is
+ * Cloneable, directly or through any superclass or superinterface. Every question afterwards is a single map lookup.
+ * A supertype found neither in the scan nor in the JDK, e.g. from a library, may be Cloneable: its subtypes are
+ * given the benefit of the doubt rather than reported.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class TypeHierarchyIndex {
+    private static final Comparator<Finding> BY_SITE = Comparator.comparing(Finding::getPath)
+            .thenComparing(finding -> finding.getRange().map(range -> range.begin.line).orElse(0))
+            .thenComparing(finding -> finding.getRange().map(range -> range.begin.column).orElse(0));
+
+    /**
+     * a class defining clone(), to be checked once the hierarchy is known
+     */
+    private static final class CloneCheck {
+        private final String qualifiedName;
+        private final Finding finding;
+
+        private CloneCheck(final String qualifiedName, final Finding finding) {
+            this.qualifiedName = qualifiedName;
+            this.finding = finding;
+        }
+    }
+
+    private final Map<String, List<List<String>>> supertypes = new ConcurrentHashMap<>();
+    private final Queue<CloneCheck> cloneChecks = new ConcurrentLinkedQueue<>();
+    // written by complete() only, after the scan
+    private final Map<String, Boolean> cloneable = new HashMap<>();
+    private final Map<String, Boolean> jdkCloneable = new HashMap<>();
+    private final Set<String> missingFromJdk = new HashSet<>();
+    private int unresolvedSupertypes;
+
+    /**
+     * @param qualifiedName qualified name of a scanned type, e.g. "org.joda.time.DateTimeZone" or "a.Outer.Inner"
+     * @param supertypeCandidates for every direct supertype, the qualified names it may stand for, most likely first
+     */
+    void addType(final String qualifiedName, final List<List<String>> supertypeCandidates) {
+        supertypes.put(qualifiedName, supertypeCandidates);
+    }
+
+    /**
+     * @param qualifiedName qualified name of a class defining clone()
+     * @param finding the finding to be reported if the class turns out not to be Cloneable
+     */
+    void addCloneCheck(final String qualifiedName, final Finding finding) {
+        cloneChecks.add(new CloneCheck(qualifiedName, finding));
+    }
+
+    /**
+     * @return number of scanned types
+     */
+    int size() {
+        return supertypes.size();
+    }
+
+    /**
+     * @return number of supertypes found neither in the scan nor in the JDK, once complete() is done
+     */
+    int getUnresolvedSupertypes() {
+        return unresolvedSupertypes;
+    }
+
+    /**
+     * Resolve the supertypes and find the Cloneable types, only to be called once all the files have been added
+     */
+    void complete() {
+        for (String qualifiedName : supertypes.keySet()) {
+            computeCloneable(qualifiedName, new HashSet<>());
+        }
+    }
+
+    /**
+     * @param qualifiedName qualified name of a scanned type
+     * @return true if the type implements java.lang.Cloneable directly or through one of its supertypes
+     */
+    boolean isCloneable(final String qualifiedName) {
+        return cloneable.getOrDefault(qualifiedName, false);
+    }
+
+    /**
+     * Only to be called after complete()
+     * @return the findings of the classes defining clone() without being Cloneable, sorted by site
+     */
+    List<Finding> getCloneableFindings() {
+        List<Finding> findings = new ArrayList<>();
+        for (CloneCheck cloneCheck : cloneChecks) {
+            if (!isCloneable(cloneCheck.qualifiedName)) {
+                findings.add(cloneCheck.finding);
+            }
+        }
+        findings.sort(BY_SITE);
+        return findings;
+    }
+
+    private boolean computeCloneable(final String qualifiedName, final Set<String> visiting) {
+        Boolean known = cloneable.get(qualifiedName);
+        if (known != null) {
+            return known;
+        }
+        // a cycle only comes from code that does not compile, it adds nothing
+        if (!visiting.add(qualifiedName)) {
+            return false;
+        }
+        boolean result = false;
+        for (List<String> candidates : supertypes.get(qualifiedName)) {
+            String supertype = resolve(candidates);
+            if (supertype == null) {
+                unresolvedSupertypes++;
+                result = true;
+                break;
+            }
+            result = supertypes.containsKey(supertype) ? computeCloneable(supertype, visiting) : isJdkCloneable(supertype);
+            if (result) {
+                break;
+            }
+        }
+        visiting.remove(qualifiedName);
+        cloneable.put(qualifiedName, result);
+        return result;
+    }
+
+    /**
+     * @return the first candidate found among the scanned types or in the JDK, null if none is known
+     */
+    private String resolve(final List<String> candidates) {
+        // in the order Java looks them up: an imported JDK type hides a scanned type of the same package
+        for (String candidate : candidates) {
+            if (supertypes.containsKey(candidate) || jdkCloneable.containsKey(candidate) || isJdkType(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private boolean isJdkType(final String qualifiedName) {
+        if (missingFromJdk.contains(qualifiedName)) {
+            return false;
+        }
+        try {
+            // not initialized, nothing of the class runs
+            Class<?> type = Class.forName(qualifiedName, false, ClassLoader.getSystemClassLoader());
+            jdkCloneable.put(qualifiedName, Cloneable.class.isAssignableFrom(type));
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            // e.g. a same-package candidate of a JDK type, asked again for every class of the package
+            missingFromJdk.add(qualifiedName);
+            return false;
+        }
+    }
+
+    private boolean isJdkCloneable(final String qualifiedName) {
+        return jdkCloneable.getOrDefault(qualifiedName, false);
+    }
+}
@@ -0,0 +1,184 @@
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import com.google.common.cache.CacheStats;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * TypeResolution answers the static type of expressions with the JavaSymbolSolver, for the resolved inspections.
+ * A single CombinedTypeSolver is shared by all the files and threads: it looks the types up by reflection in the JRE
+ * and in the source roots of the scanned code, behind a CachingTypeSolver, so a type is parsed once per run instead
+ * of once per file referring to it. The names of the types found can be saved and looked up again in the background
+ * when the next run starts. The declarations found keep the solvers that found them, and resolve through their
+ * JavaParserFacade and JavaParser, none of them thread-safe, so the resolution itself is serialized, while parsing
+ * and the other inspections stay parallel.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class TypeResolution {
+    private static final Pattern PACKAGE_DECLARATION = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+
+    private final CachingTypeSolver typeSolver;
+    private final JavaSymbolSolver symbolSolver;
+    // held by every use of the solvers
+    private final Object resolutionLock = new Object();
+    private final AtomicInteger resolvedCount = new AtomicInteger();
+    private final AtomicInteger unresolvedCount = new AtomicInteger();
+
+    /**
+     * @param sourceRoots directories holding the packages of the scanned code, e.g. "src/main/java"
+     * @param typeCacheSize number of type names kept by the cache of the type solver
+     */
+    TypeResolution(final List<Path> sourceRoots, final long typeCacheSize) {
+        CombinedTypeSolver combinedTypeSolver = new CombinedTypeSolver(new ReflectionTypeSolver());
+        for (Path sourceRoot : sourceRoots) {
+            combinedTypeSolver.add(new JavaParserTypeSolver(sourceRoot));
+        }
+        this.typeSolver = new CachingTypeSolver(combinedTypeSolver, typeCacheSize);
+        this.symbolSolver = new JavaSymbolSolver(typeSolver);
+    }
+
+    /**
+     * Find the source roots below a directory from the package declarations of the .java files
+     * @param rootDirectory directory of the code to be inspected, e.g. a Joda-time version
+     * @return the source roots, e.g. "src/java" and "src/test" for JodaTime-pre-abstract
+     * @throws IOException if the directory cannot be walked
+     */
+    static List<Path> findSourceRoots(final Path rootDirectory) throws IOException {
+        Set<Path> sourceRoots = new LinkedHashSet<>();
+        Set<Path> directories = new HashSet<>();
+        try (Stream<Path> paths = Files.walk(rootDirectory)) {
+            Iterator<Path> javaFiles = paths.filter(path -> path.toString().endsWith(".java")).iterator();
+            while (javaFiles.hasNext()) {
+                Path javaFile = javaFiles.next().toAbsolutePath();
+                // the files of a directory share their package, one of them is enough
+                if (directories.add(javaFile.getParent())) {
+                    Path sourceRoot = sourceRootOf(javaFile);
+                    if (sourceRoot != null) {
+                        sourceRoots.add(sourceRoot);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(sourceRoots);
+    }
+
+    /**
+     * @param expression expression of a compilationUnit
+     * @return true if the expression is a java.lang.String, false if it is not or its type cannot be resolved
+     */
+    boolean isString(final Expression expression) {
+        CompilationUnit compilationUnit = expression.findCompilationUnit().orElse(null);
+        if (compilationUnit == null) {
+            return false;
+        }
+        synchronized (resolutionLock) {
+            try {
+                if (!compilationUnit.containsData(Node.SYMBOL_RESOLVER_KEY)) {
+                    symbolSolver.inject(compilationUnit);
+                }
+                ResolvedType type = expression.calculateResolvedType();
+                resolvedCount.incrementAndGet();
+                return type.isReferenceType() && type.asReferenceType().getQualifiedName().equals("java.lang.String");
+            } catch (RuntimeException e) {
+                // e.g. an UnsolvedSymbolException for a type that is neither in the JRE nor in the source roots
+                unresolvedCount.incrementAndGet();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Look the given types up ahead of the inspections, e.g. in a background thread while the first files are parsed.
+     * Names that no longer exist are simply cached as not found.
+     * @param typeNames qualified names of the types, like written by writeTypeNames
+     */
+    void warmUp(final List<String> typeNames) {
+        for (String typeName : typeNames) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            // one name at a time, the inspections are not held back for long
+            synchronized (resolutionLock) {
+                try {
+                    typeSolver.tryToSolveType(typeName);
+                } catch (RuntimeException e) {
+                    // e.g. a source file that cannot be parsed anymore, it fails again when a file needs it
+                }
+            }
+        }
+    }
+
+    /**
+     * @param file file written by writeTypeNames
+     * @return the qualified names of the types found by an earlier run, empty if there was none
+     * @throws IOException if the file exists but cannot be read
+     */
+    static List<String> readTypeNames(final Path file) throws IOException {
+        return Files.exists(file) ? Files.readAllLines(file, StandardCharsets.UTF_8) : new ArrayList<>();
+    }
+
+    /**
+     * Save the names of the types found so far, one per line
+     * @param file file to be read by readTypeNames in the next run
+     * @throws IOException if the file cannot be written
+     */
+    void writeTypeNames(final Path file) throws IOException {
+        Files.write(file, typeSolver.getSolvedNames(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return hit, miss and eviction counts of the cache of the type solver
+     */
+    CacheStats getTypeCacheStats() {
+        return typeSolver.getStats();
+    }
+
+    int getResolvedCount() {
+        return resolvedCount.get();
+    }
+
+    int getUnresolvedCount() {
+        return unresolvedCount.get();
+    }
+
+    /**
+     * @param javaFile absolute path of a .java file
+     * @return the directory of the file without its package directories, null if they do not match the package
+     */
+    private static Path sourceRootOf(final Path javaFile) throws IOException {
+        Path sourceRoot = javaFile.getParent();
+        // only the keyword and the package name are needed, any byte maps to a char in ISO-8859-1
+        Matcher matcher = PACKAGE_DECLARATION.matcher(new String(Files.readAllBytes(javaFile), StandardCharsets.ISO_8859_1));
+        if (!matcher.find()) {
+            return sourceRoot;
+        }
+        String[] packageNames = matcher.group(1).split("\\.");
+        for (int i = packageNames.length - 1; i >= 0; i--) {
+            if (sourceRoot == null || !sourceRoot.getFileName().toString().equals(packageNames[i])) {
+                return null;
+            }
+            sourceRoot = sourceRoot.getParent();
+        }
+        return sourceRoot;
+    }
+}
@@ -0,0 +1,65 @@
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Watchdog is a thread looking over the deadlines of the files being analyzed, and expiring the ones
+ * whose budget is spent. It never stops a worker itself, the worker gives up at its next checkpoint.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class Watchdog {
+    private final long budgetMillis;
+    private final LongSupplier clock;
+    private final Set<Deadline> deadlines = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param budgetMillis time budget of every file, in milliseconds
+     * @param clock nanosecond clock, e.g. System::nanoTime
+     */
+    Watchdog(final long budgetMillis, final LongSupplier clock) {
+        this.budgetMillis = budgetMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Start the watchdog thread
+     * @param threads collects the started thread so that the engine can stop it
+     */
+    void start(final List<Thread> threads) {
+        Thread thread = new Thread(this::run, "watchdog");
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+    }
+
+    /**
+     * @return a new deadline, watched until unwatch
+     */
+    Deadline watch() {
+        Deadline deadline = new Deadline(budgetMillis, clock);
+        deadlines.add(deadline);
+        return deadline;
+    }
+
+    void unwatch(final Deadline deadline) {
+        deadlines.remove(deadline);
+    }
+
+    private void run() {
+        // overruns are noticed within a tenth of the budget
+        long periodMillis = Math.max(1, budgetMillis / 10);
+        try {
+            while (true) {
+                Thread.sleep(periodMillis);
+                long now = clock.getAsLong();
+                // expired deadlines are left to the engine, which reports them
+                deadlines.removeIf(deadline -> deadline.expireIfOverdue(now));
+            }
+        } catch (InterruptedException e) {
+            // the engine is shutting the pipeline down
+            Thread.currentThread().interrupt();
+        }
+    }
+}
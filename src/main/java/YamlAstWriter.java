@@ -0,0 +1,159 @@
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.metamodel.NodeMetaModel;
+import com.github.javaparser.metamodel.PropertyMetaModel;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * YamlAstWriter dumps an AST in the YAML format of JavaParser's YamlPrinter, but writes every node straight to
+ * a Writer instead of building the whole document as one String first. Together with a buffered writer,
+ * memory use no longer depends on the size of the file being dumped.
+ * @author Jiayang Liu, Kechen Liu
+ * @code Assignment 4, CS6501 Analysis of Software Artifacts @ UVA
+ */
+class YamlAstWriter {
+    private static final int NUM_SPACES_FOR_INDENT = 4;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    // the meta models are singletons, their properties only need to be sorted out once
+    private static final Map<NodeMetaModel, NodeProperties> NODE_PROPERTIES = new ConcurrentHashMap<>();
+
+    private final boolean outputNodeType;
+
+    /**
+     * @param outputNodeType print the type of every node next to its name, like YamlPrinter(true)
+     */
+    YamlAstWriter(final boolean outputNodeType) {
+        this.outputNodeType = outputNodeType;
+    }
+
+    /**
+     * Write the whole YAML document of the node, without flushing the writer
+     * @param node root of the AST to be dumped
+     * @param writer destination of the document, preferably buffered
+     * @throws IOException if the writer fails
+     */
+    void write(final Node node, final Writer writer) throws IOException {
+        writer.write("---");
+        write(node, "root", 0, writer);
+        writer.write(LINE_SEPARATOR);
+        writer.write("...");
+    }
+
+    private void write(final Node node, final String name, final int level, final Writer writer) throws IOException {
+        NodeMetaModel metaModel = node.getMetaModel();
+        NodeProperties properties = NODE_PROPERTIES.computeIfAbsent(metaModel, NodeProperties::new);
+
+        newLine(level, writer);
+        writer.write(name);
+        if (outputNodeType) {
+            writer.write("(Type=");
+            writer.write(metaModel.getTypeName());
+            writer.write(")");
+        }
+        writer.write(": ");
+
+        int childLevel = level + 1;
+        for (PropertyMetaModel attribute : properties.attributes) {
+            newLine(childLevel, writer);
+            writer.write(attribute.getName());
+            writer.write(": ");
+            writeEscaped(attribute.getValue(node).toString(), writer);
+        }
+        for (PropertyMetaModel subNode : properties.subNodes) {
+            Node child = (Node) subNode.getValue(node);
+            if (child != null) {
+                write(child, subNode.getName(), childLevel, writer);
+            }
+        }
+        for (PropertyMetaModel subList : properties.subLists) {
+            NodeList<?> children = (NodeList<?>) subList.getValue(node);
+            if (children != null && children.isNonEmpty()) {
+                newLine(childLevel, writer);
+                writer.write(subList.getName());
+                writer.write(": ");
+                String childName = subList.getName().endsWith("s")
+                        ? "- " + subList.getName().substring(0, subList.getName().length() - 1)
+                        : "- " + subList.getName();
+                for (Node child : children) {
+                    write(child, childName, childLevel + 1, writer);
+                }
+            }
+        }
+    }
+
+    private static void newLine(final int level, final Writer writer) throws IOException {
+        writer.write(LINE_SEPARATOR);
+        for (int i = 0; i < level * NUM_SPACES_FOR_INDENT; i++) {
+            writer.write(' ');
+        }
+    }
+
+    /**
+     * quote the value and escape it the same way as YamlPrinter
+     */
+    private static void writeEscaped(final String value, final Writer writer) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\f':
+                    writer.write("\\f");
+                    break;
+                case '\b':
+                    writer.write("\\b");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Properties of one node type, split the way YamlPrinter prints them
+     */
+    private static final class NodeProperties {
+        private final List<PropertyMetaModel> attributes = new ArrayList<>();
+        private final List<PropertyMetaModel> subNodes = new ArrayList<>();
+        private final List<PropertyMetaModel> subLists = new ArrayList<>();
+
+        private NodeProperties(final NodeMetaModel metaModel) {
+            for (PropertyMetaModel property : metaModel.getAllPropertyMetaModels()) {
+                if (property.isAttribute() && property.isSingular()) {
+                    attributes.add(property);
+                }
+            }
+            for (PropertyMetaModel property : metaModel.getAllPropertyMetaModels()) {
+                if (property.isNode() && property.isSingular()) {
+                    subNodes.add(property);
+                }
+            }
+            for (PropertyMetaModel property : metaModel.getAllPropertyMetaModels()) {
+                if (property.isNodeList()) {
+                    subLists.add(property);
+                }
+            }
+        }
+    }
+}
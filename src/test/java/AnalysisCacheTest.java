@@ -0,0 +1,87 @@
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AnalysisCacheTest {
+    @Test
+    public void unchangedFileServedFromCacheTest() throws Exception {
+        Path cacheDirectory = Files.createTempDirectory("bugfinder-cache");
+        List<String> javaFilesPathList = Collections.singletonList(TestPatterns.path("2-2"));
+        EngineOptions options = new EngineOptions().setWorkers(1).setCacheDirectory(cacheDirectory);
+
+        ByteArrayOutputStream firstOutput = new ByteArrayOutputStream();
+        List<FileReport> firstReports = new BugFinderEngine(options).analyze(javaFilesPathList, new PrintStream(firstOutput, true));
+        ByteArrayOutputStream secondOutput = new ByteArrayOutputStream();
+        List<FileReport> secondReports = new BugFinderEngine(options).analyze(javaFilesPathList, new PrintStream(secondOutput, true));
+
+        assertTrue(firstOutput.toString().contains("Analysis cache: 0 hits, 1 misses"));
+        assertTrue(secondOutput.toString().contains("Analysis cache: 1 hits, 0 misses"));
+        assertEquals(firstReports.get(0).getFindings(), secondReports.get(0).getFindings());
+        assertFalse(secondReports.get(0).isGoodStringLiteral());
+        // a cached report is never parsed nor inspected
+        assertEquals(0, secondReports.get(0).getParseNanos());
+    }
+
+    @Test
+    public void cachedResultsInDetectorOrderTest() throws Exception {
+        Path cacheDirectory = Files.createTempDirectory("bugfinder-cache");
+        EngineOptions options = new EngineOptions().setWorkers(1).setCacheDirectory(cacheDirectory);
+
+        List<FileReport> freshReports = new BugFinderEngine(options).analyze(TestPatterns.paths(), new PrintStream(new ByteArrayOutputStream(), true));
+        List<FileReport> cachedReports = new BugFinderEngine(options).analyze(TestPatterns.paths(), new PrintStream(new ByteArrayOutputStream(), true));
+
+        for (int i = 0; i < freshReports.size(); i++) {
+            // the order of the detectors, not the one of the properties of the entry
+            assertEquals(new ArrayList<>(freshReports.get(i).getResults().entrySet()), new ArrayList<>(cachedReports.get(i).getResults().entrySet()));
+        }
+    }
+
+    @Test
+    public void detectorSetVersionChangesKeyTest() throws Exception {
+        Path cacheDirectory = Files.createTempDirectory("bugfinder-cache");
+        byte[] content = "class A {}".getBytes("UTF-8");
+        String singlePassVersion = AnalysisCache.versionOf("single-pass", Collections.singletonList(DetectorTraversal.class));
+        String multiPassVersion = AnalysisCache.versionOf("multi-pass", Collections.singletonList(DetectorTraversal.class));
+        String otherCodeVersion = AnalysisCache.versionOf("single-pass", Collections.singletonList(MyBugFinder.class));
+
+        String key = new AnalysisCache(cacheDirectory, singlePassVersion).keyOf(content);
+        assertNotEquals(key, new AnalysisCache(cacheDirectory, multiPassVersion).keyOf(content));
+        assertNotEquals(key, new AnalysisCache(cacheDirectory, otherCodeVersion).keyOf(content));
+        assertEquals(key, new AnalysisCache(cacheDirectory, singlePassVersion).keyOf(content));
+    }
+
+    @Test
+    public void cacheWriteFailureKeepsReportTest() throws Exception {
+        Path cacheDirectory = Files.createTempDirectory("bugfinder-cache");
+        // every entry goes to a sub-directory named after the first two hex digits of its key, files block them all
+        for (int i = 0; i < 256; i++) {
+            Files.createFile(cacheDirectory.resolve(String.format("%02x", i)));
+        }
+        List<String> javaFilesPathList = Collections.singletonList(TestPatterns.path("2-2"));
+        EngineOptions options = new EngineOptions().setWorkers(1).setCacheDirectory(cacheDirectory).setFailureBudget(0);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        List<FileReport> reports = new BugFinderEngine(options).analyze(javaFilesPathList, new PrintStream(output, true));
+
+        assertFalse(reports.get(0).isFailed());
+        assertFalse(reports.get(0).isGoodStringLiteral());
+        assertTrue(output.toString().contains("Analysis cache: 1 reports could not be stored"));
+    }
+
+    @Test
+    public void versionCoversNestedClassesTest() {
+        // LiteralScanner holds a nested class, AnalysisSession anonymous ones: both are found and hashed
+        assertNotEquals(AnalysisCache.versionOf("single-pass", Collections.singletonList(LiteralScanner.class)),
+                AnalysisCache.versionOf("single-pass", Collections.singletonList(AnalysisSession.class)));
+        assertEquals(AnalysisCache.versionOf("single-pass", Collections.singletonList(LiteralScanner.class)),
+                AnalysisCache.versionOf("single-pass", Collections.singletonList(LiteralScanner.class)));
+    }
+}
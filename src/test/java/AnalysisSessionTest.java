@@ -0,0 +1,40 @@
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AnalysisSessionTest {
+    @Test
+    public void factsComputedOnFirstUseOnlyTest() {
+        AnalysisSession session = new AnalysisSession(new SourceParser(false).parse("class Names {\n"
+                + "    private String name;\n"
+                + "    public Object clone() { return this; }\n"
+                + "}\n"), "Names.java", false, new PrintStream(new ByteArrayOutputStream(), true));
+        AtomicInteger computations = new AtomicInteger();
+        Fact<Integer> stringVariableCount = new Fact<>("stringVariableCount", s -> {
+            computations.incrementAndGet();
+            // a fact may depend on another one
+            return s.get(AnalysisSession.STRING_VARIABLES).size();
+        });
+
+        assertEquals(0, computations.get());
+        assertEquals(Integer.valueOf(1), session.get(stringVariableCount));
+        assertEquals(Integer.valueOf(1), session.get(stringVariableCount));
+        assertEquals(1, computations.get());
+        // definedMethodSet was never asked for, "clone" is only interned once it is
+        assertEquals(SymbolTable.NO_ID, session.getSymbolTable().lookup("clone"));
+        assertTrue(session.getDefinedMethodSet().contains(session.getSymbolTable().lookup("clone")));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void factDependingOnItselfTest() {
+        AnalysisSession session = new AnalysisSession(new SourceParser(false).parse("class Empty { }"), "Empty.java", false,
+                new PrintStream(new ByteArrayOutputStream(), true));
+        Fact<?>[] cyclic = new Fact<?>[1];
+        cyclic[0] = new Fact<>("cyclic", s -> s.get(cyclic[0]));
+        session.get(cyclic[0]);
+    }
+}
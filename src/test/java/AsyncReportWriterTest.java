@@ -0,0 +1,36 @@
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class AsyncReportWriterTest {
+    @Test
+    public void recordsWrittenInOrderByCloseTest() {
+        StringWriter text = new StringWriter();
+        StringWriter expected = new StringWriter();
+        FindingSink expectedSink = new TextReportFormat(new PrintWriter(expected));
+        try (FindingSink findingSink = new AsyncReportWriter(new TextReportFormat(new PrintWriter(text)))) {
+            for (int i = 0; i < 5000; i++) {
+                String path = "File" + i + ".java";
+                Finding finding = new Finding(BadStringComparisonDetector.NAME, path, null, "finding " + i, "a == b");
+                findingSink.beginFile(path);
+                findingSink.finding(finding);
+                expectedSink.beginFile(path);
+                expectedSink.finding(finding);
+            }
+            findingSink.note("done");
+            expectedSink.note("done");
+        }
+        expectedSink.close();
+        assertEquals(expected.toString(), text.toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closedWriterRejectsRecordsTest() {
+        FindingSink findingSink = new AsyncReportWriter(new TextReportFormat(new PrintWriter(new StringWriter())));
+        findingSink.close();
+        findingSink.note("too late");
+    }
+}
@@ -0,0 +1,213 @@
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class BugFinderEngineTest {
+    private static final long FILE_TIMEOUT = 200;
+
+    @Test
+    public void reportOrderIndependentOfWorkerCountTest() throws Exception {
+        List<String> javaFilesPathList = TestPatterns.paths();
+
+        ByteArrayOutputStream sequentialOutput = new ByteArrayOutputStream();
+        List<FileReport> sequentialReports = new BugFinderEngine(1).analyze(javaFilesPathList, new PrintStream(sequentialOutput, true));
+        ByteArrayOutputStream parallelOutput = new ByteArrayOutputStream();
+        List<FileReport> parallelReports = new BugFinderEngine(4).analyze(javaFilesPathList, new PrintStream(parallelOutput, true));
+
+        assertEquals(sequentialOutput.toString(), parallelOutput.toString());
+        assertEquals(javaFilesPathList.size(), parallelReports.size());
+        for (int i = 0; i < javaFilesPathList.size(); i++) {
+            assertEquals(javaFilesPathList.get(i), parallelReports.get(i).getPath());
+            assertEquals(sequentialReports.get(i).isGoodStringComparison(), parallelReports.get(i).isGoodStringComparison());
+            assertEquals(sequentialReports.get(i).isImplementsCloneableWhenDefinesClone(), parallelReports.get(i).isImplementsCloneableWhenDefinesClone());
+            assertEquals(sequentialReports.get(i).isGoodStringLiteral(), parallelReports.get(i).isGoodStringLiteral());
+        }
+        // testpattern1-1 compares two String fields with "=="
+        assertFalse(parallelReports.get(0).isGoodStringComparison());
+    }
+
+    @Test
+    public void failedFileDoesNotAbortRunTest() throws Exception {
+        Path directory = Files.createTempDirectory("bugfinder-engine");
+        Path recovered = directory.resolve("Recovered.java");
+        Files.write(recovered, ("class Recovered {\n  String a = \"x\";\n  void m() {\n    int x = ;\n    String b = \"x\";\n  }\n}\n").getBytes("UTF-8"));
+        List<String> javaFilesPathList = Arrays.asList(directory.resolve("Missing.java").toString(), recovered.toString(), TestPatterns.path("1-1"));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        List<FileReport> reports = new BugFinderEngine(1).analyze(javaFilesPathList, new PrintStream(output, true));
+
+        assertEquals(3, reports.size());
+        assertTrue(reports.get(0).isFailed());
+        assertFalse(reports.get(1).isFailed());
+        assertEquals(1, reports.get(1).getParseProblems().size());
+        // the statements after the parse error are still inspected
+        assertFalse(reports.get(1).isGoodStringLiteral());
+        assertFalse(reports.get(2).isGoodStringComparison());
+        assertTrue(output.toString().contains("Run summary: 3 files, 2 analyzed (1 with recovered parse errors), 1 failed (0 parse failures, 0 timeouts)"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failureBudgetAbortsRunTest() throws Exception {
+        List<String> javaFilesPathList = Arrays.asList(Files.createTempDirectory("bugfinder-engine").resolve("Missing.java").toString(),
+                TestPatterns.path("1-1"));
+        new BugFinderEngine(new EngineOptions().setWorkers(1).setFailureBudget(0))
+                .analyze(javaFilesPathList, new PrintStream(new ByteArrayOutputStream(), true));
+    }
+
+    @Test
+    public void secondLiteralPassFailureCountedTest() throws Exception {
+        Path directory = Files.createTempDirectory("bugfinder-engine");
+        Path gone = directory.resolve("Gone.java");
+        Files.write(gone, "class Gone { String a = \"x\"; }\n".getBytes("UTF-8"));
+        List<String> javaFilesPathList = Arrays.asList(gone.toString(), TestPatterns.path("1-1"));
+        EngineOptions options = new EngineOptions().setWorkers(1).setProjectLiteralMode(true).setApproximateLiteralMode(true);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (FindingSink findingSink = new AsyncReportWriter(new TextReportFormat(new PrintWriter(new OutputStreamWriter(output, "UTF-8"))))) {
+            // the file is gone once the first pass is done with it
+            new BugFinderEngine(options).analyze(javaFilesPathList.iterator(), findingSink, report -> delete(gone));
+        }
+        assertTrue(output.toString().contains("Second literal pass failed: " + gone));
+        assertTrue(output.toString().contains("0 failed (0 parse failures, 0 timeouts), 1 failed the second literal pass"));
+
+        Files.write(gone, "class Gone { String a = \"x\"; }\n".getBytes("UTF-8"));
+        try (FindingSink findingSink = new AsyncReportWriter(new TextReportFormat(new PrintWriter(new OutputStreamWriter(output, "UTF-8"))))) {
+            new BugFinderEngine(options.setFailureBudget(0)).analyze(javaFilesPathList.iterator(), findingSink, report -> delete(gone));
+            fail("over the failure budget");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains(gone.toString()));
+        }
+    }
+
+    @Test
+    public void timeRunningOutInFinishFailsFileTest() throws Exception {
+        AtomicLong now = new AtomicLong();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        List<FileReport> reports = new BugFinderEngine(new EngineOptions().setWorkers(1).setFileTimeout(FILE_TIMEOUT).setClock(now::get),
+                Collections.singletonList(slowFinish(TestPatterns.path("1-1"), now))).analyze(Collections.singletonList(TestPatterns.path("1-1")),
+                new PrintStream(output, true));
+
+        assertTrue(reports.get(0).isTimedOut());
+        // the budget was spent in the detect stage
+        assertEquals(5 * FILE_TIMEOUT * 1_000_000, reports.get(0).getTraversalNanos());
+        assertTrue(output.toString().contains("1 failed (0 parse failures, 1 timeouts)"));
+    }
+
+    @Test
+    public void literalScannerFallsBackOnNonCompilingInputTest() throws Exception {
+        Path directory = Files.createTempDirectory("bugfinder-engine");
+        Path recovered = directory.resolve("Recovered.java");
+        Files.write(recovered, ("class Recovered {\n  String a = \"x\";\n  void m() {\n    int x = ;\n    String b = \"x\";\n  }\n}\n").getBytes("UTF-8"));
+        Path unbalanced = directory.resolve("Unbalanced.java");
+        Files.write(unbalanced, "class Unbalanced { String a = \"x\"; void m() { String b = \"x\"; }\n".getBytes("UTF-8"));
+        List<String> javaFilesPathList = Arrays.asList(recovered.toString(), unbalanced.toString());
+
+        List<List<FileReport>> runs = new ArrayList<>();
+        List<String> outputs = new ArrayList<>();
+        for (boolean isLiteralScannerEnabled : new boolean[]{true, false}) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            runs.add(new BugFinderEngine(new EngineOptions().setWorkers(1).setLiteralScannerEnabled(isLiteralScannerEnabled)
+                    .setRules(Collections.singleton(DuplicatedStringLiteralDetector.NAME)))
+                    .analyze(javaFilesPathList, new PrintStream(output, true)));
+            outputs.add(output.toString());
+        }
+
+        // the scanner does not understand either file, both get the report of the full parse
+        assertEquals(outputs.get(1), outputs.get(0));
+        List<FileReport> scanned = runs.get(0);
+        assertEquals(1, scanned.get(0).getParseProblems().size());
+        assertFalse(scanned.get(0).isGoodStringLiteral());
+        assertTrue(scanned.get(1).isFailed() || !scanned.get(1).getParseProblems().isEmpty());
+    }
+
+    @Test
+    public void timeRunningOutInParseFailsFileTest() throws Exception {
+        for (boolean isLiteralScannerEnabled : new boolean[]{true, false}) {
+            // every reading of the clock is a whole budget later than the one before
+            AtomicLong now = new AtomicLong();
+            List<FileReport> reports = new BugFinderEngine(new EngineOptions().setWorkers(1).setFileTimeout(FILE_TIMEOUT)
+                    .setClock(() -> now.addAndGet(FILE_TIMEOUT * 1_000_000 + 1))
+                    .setLiteralScannerEnabled(isLiteralScannerEnabled).setRules(Collections.singleton(DuplicatedStringLiteralDetector.NAME)))
+                    .analyze(Collections.singletonList(TestPatterns.path("2-2")), new PrintStream(new ByteArrayOutputStream(), true));
+
+            assertTrue(reports.get(0).isTimedOut());
+            // the time spent until the timeout is still counted
+            assertTrue(reports.get(0).getParseNanos() > FILE_TIMEOUT * 1_000_000);
+        }
+    }
+
+    @Test
+    public void slowestFilesListedWithTimeoutsTest() throws Exception {
+        List<String> javaFilesPathList = Arrays.asList(TestPatterns.path("1-1"), TestPatterns.path("1-2"), TestPatterns.path("1-3"));
+        AtomicLong now = new AtomicLong();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BugFinderEngine(new EngineOptions().setWorkers(1).setFileTimeout(FILE_TIMEOUT).setSlowestFileCount(2).setClock(now::get),
+                Collections.singletonList(slowFinish(TestPatterns.path("1-2"), now))).analyze(javaFilesPathList, new PrintStream(output, true));
+
+        List<String> lines = Arrays.asList(output.toString().split("\\R"));
+        int slowest = lines.indexOf("Slowest 2 files:");
+        assertTrue(slowest >= 0);
+        // the file timed out spent the whole budget, it comes first
+        assertTrue(lines.get(slowest + 1), lines.get(slowest + 1).startsWith("  " + TestPatterns.path("1-2") + ": "));
+        assertTrue(lines.get(slowest + 1).endsWith(" ms) timed out"));
+        assertFalse(lines.get(slowest + 2).contains(TestPatterns.path("1-2")));
+        assertTrue(lines.get(slowest + 2), lines.get(slowest + 2).endsWith(" ms)"));
+        assertTrue(lines.get(slowest + 3).startsWith("Run summary: 3 files, 2 analyzed (0 with recovered parse errors), 1 failed (0 parse failures, 1 timeouts)"));
+    }
+
+    private static void delete(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param slowPath path of the file whose inspection takes five times the file timeout
+     * @param now clock of the engine, moved forward by the inspection
+     * @return a detector whose whole work is in finish(), where no node visit checks the deadline
+     */
+    private static Supplier<Detector> slowFinish(final String slowPath, final AtomicLong now) {
+        return () -> new Detector() {
+            @Override
+            public String getName() {
+                return "SlowFinish";
+            }
+
+            @Override
+            public List<Class<? extends Node>> getNodeTypes() {
+                return Collections.singletonList(CompilationUnit.class);
+            }
+
+            @Override
+            public void visit(final Node node) {
+            }
+
+            @Override
+            public boolean finish(final AnalysisSession session) {
+                if (session.getPath().equals(slowPath)) {
+                    now.addAndGet(5 * FILE_TIMEOUT * 1_000_000);
+                }
+                return true;
+            }
+        };
+    }
+}
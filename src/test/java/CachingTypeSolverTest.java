@@ -0,0 +1,104 @@
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class CachingTypeSolverTest {
+    /**
+     * Finds only "org.joda.time.DateTimeFieldType" and remembers every name it was asked for
+     */
+    private static class CountingTypeSolver implements TypeSolver {
+        private final List<String> lookups = new ArrayList<>();
+        private TypeSolver parent;
+
+        @Override
+        public TypeSolver getParent() {
+            return parent;
+        }
+
+        @Override
+        public void setParent(TypeSolver parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+            lookups.add(name);
+            if (name.equals("org.joda.time.DateTimeFieldType")) {
+                return SymbolReference.solved((ResolvedReferenceTypeDeclaration) Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[]{ResolvedReferenceTypeDeclaration.class}, (proxy, method, args) -> null));
+            }
+            return SymbolReference.unsolved(ResolvedReferenceTypeDeclaration.class);
+        }
+    }
+
+    @Test
+    public void typesLookedUpOnceTest() {
+        CountingTypeSolver countingTypeSolver = new CountingTypeSolver();
+        CachingTypeSolver cachingTypeSolver = new CachingTypeSolver(countingTypeSolver, 100);
+        // the lookups of the declarations go through the cache as well
+        assertSame(cachingTypeSolver, countingTypeSolver.getRoot());
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(cachingTypeSolver.tryToSolveType("org.joda.time.DateTimeFieldType").isSolved());
+            assertFalse(cachingTypeSolver.tryToSolveType("org.joda.time.String").isSolved());
+        }
+        assertEquals(2, countingTypeSolver.lookups.size());
+        assertEquals(4, cachingTypeSolver.getStats().hitCount());
+        assertEquals(2, cachingTypeSolver.getStats().missCount());
+        assertEquals(Collections.singletonList("org.joda.time.DateTimeFieldType"), cachingTypeSolver.getSolvedNames());
+    }
+
+    @Test
+    public void leastRecentlyUsedTypeEvictedTest() {
+        CountingTypeSolver countingTypeSolver = new CountingTypeSolver();
+        CachingTypeSolver cachingTypeSolver = new CachingTypeSolver(countingTypeSolver, 1);
+        cachingTypeSolver.tryToSolveType("org.joda.time.DateTimeFieldType");
+        cachingTypeSolver.tryToSolveType("org.joda.time.String");
+        cachingTypeSolver.tryToSolveType("org.joda.time.DateTimeFieldType");
+
+        assertEquals(3, countingTypeSolver.lookups.size());
+        assertEquals(2, cachingTypeSolver.getStats().evictionCount());
+    }
+
+    // a hit waiting for the miss would never return
+    @Test(timeout = 10_000)
+    public void hitsNotHeldBackByMissTest() throws Exception {
+        CountDownLatch missStarted = new CountDownLatch(1);
+        CountDownLatch missReleased = new CountDownLatch(1);
+        CountingTypeSolver countingTypeSolver = new CountingTypeSolver() {
+            @Override
+            public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+                if (name.equals("org.joda.time.Slow")) {
+                    missStarted.countDown();
+                    try {
+                        missReleased.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.tryToSolveType(name);
+            }
+        };
+        CachingTypeSolver cachingTypeSolver = new CachingTypeSolver(countingTypeSolver, 100);
+        cachingTypeSolver.tryToSolveType("org.joda.time.DateTimeFieldType");
+        Thread slowLookup = new Thread(() -> cachingTypeSolver.tryToSolveType("org.joda.time.Slow"));
+        slowLookup.setDaemon(true);
+        slowLookup.start();
+        missStarted.await();
+
+        // answered from the cache while the other thread is still in its lookup
+        assertTrue(cachingTypeSolver.tryToSolveType("org.joda.time.DateTimeFieldType").isSolved());
+        missReleased.countDown();
+        slowLookup.join();
+        assertEquals(2, countingTypeSolver.lookups.size());
+    }
+}
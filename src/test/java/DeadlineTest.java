@@ -0,0 +1,55 @@
+import org.junit.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class DeadlineTest {
+    @Test
+    public void onlyRunningTimeCountsTest() {
+        AtomicLong now = new AtomicLong();
+        Deadline deadline = new Deadline(1000, now::get);
+        deadline.start();
+        deadline.stop();
+        // waiting in a queue does not spend the budget
+        assertFalse(deadline.expireIfOverdue(2_000_000_000L));
+        now.set(2_000_000_000L);
+        deadline.start();
+        assertTrue(deadline.expireIfOverdue(4_000_000_000L));
+        assertTrue(deadline.isExpired());
+    }
+
+    @Test(expected = FileTimeoutException.class)
+    public void overrunExpiresOnStopTest() {
+        AtomicLong now = new AtomicLong();
+        Deadline deadline = new Deadline(1000, now::get);
+        deadline.start();
+        now.addAndGet(1_000_000_001L);
+        // no watchdog looked in the meantime
+        deadline.stop();
+        deadline.check();
+    }
+
+    @Test(expected = FileTimeoutException.class)
+    public void guardedSourceStopsParserTest() throws Exception {
+        Reader source = expiredDeadline().guard(new StringReader("class A {}"));
+        source.read(new char[16], 0, 16);
+    }
+
+    @Test
+    public void parserGivesUpOnExpiredDeadlineTest() {
+        assertFalse(new SourceParser(false).parseRecovering(expiredDeadline().guard(new StringReader("class A {}"))).isSuccessful());
+    }
+
+    /**
+     * @return a running deadline the watchdog found spent
+     */
+    private static Deadline expiredDeadline() {
+        Deadline deadline = new Deadline(0, () -> 0);
+        deadline.start();
+        deadline.expireIfOverdue(1);
+        return deadline;
+    }
+}
@@ -0,0 +1,96 @@
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class DetectorTraversalTest {
+    @Test
+    public void sameResultsAsMultiPassTest() throws Exception {
+        DetectorTraversal detectorTraversal = new DetectorTraversal(DetectorTraversal.defaultDetectors());
+        for (String testPattern : TestPatterns.NAMES) {
+            String testPatternPath = TestPatterns.path(testPattern);
+            PrintStream out = new PrintStream(new ByteArrayOutputStream(), true);
+            AnalysisSession session = new AnalysisSession(testPatternPath, false, out);
+            Map<String, Boolean> results = detectorTraversal.run(session);
+
+            session.loadSets();
+            assertEquals(testPattern, MyBugFinder.detectBadStringComparison(session), results.get(BadStringComparisonDetector.NAME));
+            assertEquals(testPattern, MyBugFinder.implementsCloneableWhenDefinesClone(session), results.get(CloneableDetector.NAME));
+            assertEquals(testPattern, MyBugFinder.checkStringLiteral(session), results.get(DuplicatedStringLiteralDetector.NAME));
+        }
+    }
+
+    @Test
+    public void readsCommentsDerivedFromDetectorsTest() {
+        assertFalse(new DetectorTraversal(DetectorTraversal.defaultDetectors()).readsComments());
+
+        List<Supplier<? extends Detector>> detectorFactories = new ArrayList<>(DetectorTraversal.defaultDetectors());
+        detectorFactories.add(() -> new DuplicatedStringLiteralDetector() {
+            @Override
+            public boolean readsComments() {
+                return true;
+            }
+        });
+        assertTrue(new DetectorTraversal(detectorFactories).readsComments());
+        assertFalse(new DetectorTraversal(Collections.emptyList()).readsComments());
+    }
+
+    @Test
+    public void cloneCheckOfEnumFileTest() {
+        CompilationUnit compilationUnit = new SourceParser(false).parse("enum Unit {\n"
+                + "    SECOND;\n"
+                + "    static class Copy {\n"
+                + "        public Object clone() { return this; }\n"
+                + "    }\n"
+                + "}\n");
+        AnalysisSession session = new AnalysisSession(compilationUnit, "Unit.java", false, new PrintStream(new ByteArrayOutputStream(), true));
+        Map<String, Boolean> results = new DetectorTraversal(DetectorTraversal.defaultDetectors()).run(session);
+        assertFalse(results.get(CloneableDetector.NAME));
+
+        session.loadSets();
+        assertFalse(MyBugFinder.implementsCloneableWhenDefinesClone(session));
+    }
+
+    @Test
+    public void fieldLiteralsCheckedBeforeMethodLiteralsTest() {
+        String source = "class Order {\n"
+                + "    String m() { return \"x\"; }\n"
+                + "    String f = \"x\";\n"
+                + "}\n";
+        PrintStream out = new PrintStream(new ByteArrayOutputStream(), true);
+        AnalysisSession session = new AnalysisSession(new SourceParser(false).parse(source), "Order.java", false, out);
+        new DetectorTraversal(DetectorTraversal.defaultDetectors()).run(session);
+        AnalysisSession multiPassSession = new AnalysisSession(new SourceParser(false).parse(source), "Order.java", false, out);
+        MyBugFinder.checkStringLiteral(multiPassSession);
+
+        // the literal of the method is the duplicate, as in the original
+        assertEquals(1, session.getFindings().size());
+        assertEquals(2, session.getFindings().get(0).getRange().get().begin.line);
+        assertEquals(multiPassSession.getFindings(), session.getFindings());
+    }
+
+    @Test
+    public void selectRulesTest() {
+        List<Supplier<? extends Detector>> selected = DetectorTraversal.select(DetectorTraversal.defaultDetectors(),
+                new HashSet<>(Arrays.asList(DuplicatedStringLiteralDetector.NAME, BadStringComparisonDetector.NAME)));
+        assertEquals(Arrays.asList(BadStringComparisonDetector.class, DuplicatedStringLiteralDetector.class),
+                new DetectorTraversal(selected).getDetectorClasses());
+        assertEquals(DetectorTraversal.defaultDetectors().size(), DetectorTraversal.select(DetectorTraversal.defaultDetectors(), null).size());
+        try {
+            DetectorTraversal.select(DetectorTraversal.defaultDetectors(), Collections.singleton("StringComparison"));
+            fail("unknown rule accepted");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("StringComparison"));
+        }
+    }
+}
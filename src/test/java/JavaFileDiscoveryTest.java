@@ -0,0 +1,53 @@
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JavaFileDiscoveryTest {
+    @Test
+    public void discoverTestPatternsInOrderTest() {
+        List<String> javaFilesPathList = new ArrayList<>();
+        JavaFileDiscovery.start(Paths.get("src/test/java/testpatterns")).forEachRemaining(javaFilesPathList::add);
+
+        assertEquals(9, javaFilesPathList.size());
+        assertTrue(javaFilesPathList.get(0).endsWith("testpattern1-1.java"));
+        assertTrue(javaFilesPathList.get(8).endsWith("testpatternEC-3.java"));
+        for (int i = 1; i < javaFilesPathList.size(); i++) {
+            assertTrue(javaFilesPathList.get(i - 1).compareTo(javaFilesPathList.get(i)) < 0);
+        }
+    }
+
+    @Test
+    public void closeStopsBlockedWalkerTest() throws Exception {
+        Path rootDirectory = Files.createTempDirectory("discovery");
+        // more files than the queue holds, the walker blocks once it is full
+        for (int i = 0; i < 300; i++) {
+            Files.createFile(rootDirectory.resolve("File" + i + ".java"));
+        }
+        JavaFileDiscovery discovery = JavaFileDiscovery.start(rootDirectory);
+        assertTrue(discovery.hasNext());
+        discovery.next();
+        discovery.close();
+        assertFalse(discovery.isWalking());
+    }
+
+    @Test
+    public void symbolicLinkLoopNotFollowedTest() throws Exception {
+        Path rootDirectory = Files.createTempDirectory("discovery");
+        Files.createFile(rootDirectory.resolve("Only.java"));
+        Files.createDirectory(rootDirectory.resolve("sub"));
+        Files.createSymbolicLink(rootDirectory.resolve("sub").resolve("loop"), rootDirectory);
+
+        List<String> javaFilesPathList = new ArrayList<>();
+        try (JavaFileDiscovery discovery = JavaFileDiscovery.start(rootDirectory)) {
+            discovery.forEachRemaining(javaFilesPathList::add);
+        }
+        assertEquals(1, javaFilesPathList.size());
+        assertTrue(javaFilesPathList.get(0).endsWith("Only.java"));
+    }
+}
@@ -0,0 +1,93 @@
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LiteralScannerTest {
+    @Test
+    public void sameFindingsAsDetectorOnTestPatternsTest() throws Exception {
+        for (String testPattern : TestPatterns.NAMES) {
+            String testPatternPath = TestPatterns.path(testPattern);
+            String source = new String(Files.readAllBytes(Paths.get(testPatternPath)), StandardCharsets.UTF_8);
+            assertEquals(testPattern, detectorFindings(testPatternPath, source), new LiteralScanner(testPatternPath, source).scan());
+        }
+    }
+
+    @Test
+    public void sameFindingsAsDetectorOnScopesTest() {
+        String source = "package a;\n"
+                + "import java.util.List;\n"
+                + "/* \"x\" in a comment */\n"
+                + "@Deprecated\n"
+                + "class Scopes {\n"
+                + "    @SuppressWarnings(\"x\") private String f = \"x\", g = \"x\" + '\"';\n"
+                + "    static { String s = \"x\"; }\n"
+                + "    Scopes(String s) { this(s, \"x\"); new Object() { String h = \"x\"; }; }\n"
+                + "    Scopes(String s, String t) { class Local { void m() { t.equals(\"x\\\"y\"); } } }\n"
+                + "    @SuppressWarnings(\"x\") <T> List<T> m(@Deprecated T t) { return null; } // \"x\"\n"
+                + "    String n() { return \"x\\\"y\" + \"\\u0041\" + \"A\" + String.class + \"z\"; }\n"
+                + "    Object o() { return new Object() { String k = \"z\"; }; }\n"
+                + "    enum E { A(\"x\"), B(\"x\") { void m() { String s = \"x\"; } }; E(String s) { } void m() { } }\n"
+                + "    @interface I { String value() default \"x\"; String X = \"x\"; }\n"
+                + "    interface J { default String m() { return \"x\"; } }\n"
+                + "    Runnable r = () -> { String s = \"x\"; };\n"
+                + "}\n";
+        List<Finding> findings = new LiteralScanner("Scopes.java", source).scan();
+        assertEquals(detectorFindings("Scopes.java", source), findings);
+        assertEquals(10, findings.size());
+    }
+
+    @Test
+    public void nonCompilingCodeNotUnderstoodTest() {
+        String[] sources = {
+                "class Broken { void m() { String s = \"x\"; }\n",
+                "class Broken { void m() { int x = ; String s = \"x\"; } }\n",
+                "class Broken { void m() { m(\"x\", ); } }\n",
+                "class Broken { String s = \"x; }\n",
+                "class Broken { /* String s = \"x\"; }\n",
+                "class Broken { void m() { String s = \"x\"; }) }\n"};
+        for (String source : sources) {
+            try {
+                new LiteralScanner("Broken.java", source).scan();
+                fail(source);
+            } catch (IllegalStateException e) {
+                // the engine falls back to the full parse
+            }
+        }
+        // a trailing comma is fine in an enum or an array initializer
+        new LiteralScanner("Fine.java", "enum Fine { A, B,; String[] s = {\"x\", }; }\n").scan();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void backslashEndingFileNotUnderstoodTest() {
+        new LiteralScanner("Broken.java", "class Broken { String s = \"x\\").scan();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void backslashEndingLineNotUnderstoodTest() {
+        new LiteralScanner("Broken.java", "class Broken { String s = \"x\\\n\"; }\n").scan();
+    }
+
+    @Test(expected = FileTimeoutException.class)
+    public void expiredDeadlineStopsScanTest() {
+        Deadline deadline = new Deadline(0, () -> 0);
+        deadline.start();
+        deadline.expireIfOverdue(1);
+        new LiteralScanner("Scopes.java", "class Scopes { String f = \"x\"; }\n", deadline).scan();
+    }
+
+    private static List<Finding> detectorFindings(final String path, final String source) {
+        AnalysisSession session = new AnalysisSession(new SourceParser(false).parse(source), path, false,
+                new PrintStream(new ByteArrayOutputStream(), true));
+        new DetectorTraversal(DetectorTraversal.select(DetectorTraversal.defaultDetectors(),
+                Collections.singleton(DuplicatedStringLiteralDetector.NAME))).run(session);
+        return session.getFindings();
+    }
+}
@@ -1,6 +1,11 @@
+import com.github.javaparser.ast.expr.Expression;
 import org.junit.Before;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import static org.junit.Assert.*;
 
@@ -65,4 +70,71 @@ public class MyBugFinderTest {
         myBugFinder.setSourceCode(testPatternPath_EC_3, true);
         assertTrue(myBugFinder.implementsCloneableWhenDefinesClone());
     }
+
+    @org.junit.Test
+    public void independentFindersTest() throws Exception {
+        // two finders inspecting different files must not overwrite each other's state
+        MyBugFinder otherBugFinder = new MyBugFinder();
+        myBugFinder.setSourceCode(TestPatterns.path("1-1"), false);
+        otherBugFinder.setSourceCode(TestPatterns.path("1-3"), false);
+        assertFalse(myBugFinder.detectBadStringComparison());
+        assertTrue(otherBugFinder.detectBadStringComparison());
+    }
+
+    @org.junit.Test
+    public void detectBadStringComparisonNestedTest() throws Exception {
+        // every comparison is visited once, whatever its nesting depth: the visits grow linearly with the AST
+        for (int depth : new int[]{1, 8, 32}) {
+            File nestedPattern = writeNestedPattern(depth);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            MyBugFinder nestedBugFinder = new MyBugFinder(new PrintStream(output, true));
+            nestedBugFinder.setSourceCode(nestedPattern.getAbsolutePath(), false);
+            assertFalse(nestedBugFinder.detectBadStringComparison());
+            assertEquals(depth, output.toString().split("Bad String comparison captured", -1).length - 1);
+            assertTrue(nestedPattern.delete());
+        }
+    }
+
+    @org.junit.Test
+    public void detectBadStringComparisonVisitsLinearTest() {
+        // each comparison looks up its two operands once per visit: a re-walk per enclosing declaration would
+        // look them up depth - level + 1 times, depth * (depth + 1) in total instead of 2 * depth
+        for (int depth : new int[]{1, 8, 32, 128}) {
+            int[] lookups = new int[1];
+            AnalysisSession session = new AnalysisSession(new SourceParser(false).parse(nestedPatternSource(depth)), "Nested.java",
+                    false, new PrintStream(new ByteArrayOutputStream(), true)) {
+                @Override
+                int lookupName(final Expression expression) {
+                    lookups[0]++;
+                    return super.lookupName(expression);
+                }
+            };
+            session.loadSets();
+            assertFalse(MyBugFinder.detectBadStringComparison(session));
+            assertEquals(2 * depth, lookups[0]);
+        }
+    }
+
+    /**
+     * write a class holding depth levels of nested classes, each with one "==" comparison of two String fields
+     */
+    private static File writeNestedPattern(int depth) throws Exception {
+        File nestedPattern = File.createTempFile("testpatternNested", ".java");
+        Files.write(nestedPattern.toPath(), nestedPatternSource(depth).getBytes(StandardCharsets.UTF_8));
+        return nestedPattern;
+    }
+
+    private static String nestedPatternSource(int depth) {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            source.append("class Nested").append(i).append(" {\n")
+                    .append("    String a").append(i).append(" = \"a\";\n")
+                    .append("    String b").append(i).append(" = \"b\";\n")
+                    .append("    boolean compare() { return a").append(i).append(" == b").append(i).append("; }\n");
+        }
+        for (int i = 0; i < depth; i++) {
+            source.append("}\n");
+        }
+        return source.toString();
+    }
 }
@@ -0,0 +1,33 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.junit.Assert.*;
+
+public class PipelineStageTest {
+    @Test
+    public void errorOnlyFailsItsTaskTest() throws Exception {
+        BlockingQueue<FileTask> input = new LinkedBlockingQueue<>();
+        BlockingQueue<FileTask> output = new LinkedBlockingQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        new PipelineStage("test", 1, input, output, task -> {
+            if (task.path.equals("Broken.java")) {
+                throw new AssertionError("broken");
+            }
+        }).start(threads);
+        input.put(new FileTask(0, "Broken.java"));
+        input.put(new FileTask(1, "Good.java"));
+        input.put(FileTask.END);
+
+        FileTask broken = output.take();
+        assertTrue(broken.failure instanceof IllegalStateException);
+        assertTrue(broken.failure.getCause() instanceof AssertionError);
+        // the thread survived: the next task and the end still come out
+        assertNull(output.take().failure);
+        assertSame(FileTask.END, output.take());
+        threads.get(0).join();
+    }
+}
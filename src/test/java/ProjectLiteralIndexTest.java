@@ -0,0 +1,138 @@
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ProjectLiteralIndexTest {
+    private static final Map<String, String> SOURCES = new LinkedHashMap<>();
+
+    static {
+        SOURCES.put("DateTimeFormat.java", "class DateTimeFormat {\n"
+                + "    private static final String PATTERN = \"yyyy-MM-dd\";\n"
+                + "    String local() { return \"local\" + \"local\"; }\n"
+                + "}\n");
+        SOURCES.put("ISODateTimeFormat.java", "class ISODateTimeFormat {\n"
+                + "    String pattern() { return \"yyyy-MM-dd\"; }\n"
+                + "}\n");
+        SOURCES.put("DateTimeFormatterBuilder.java", "class DateTimeFormatterBuilder {\n"
+                + "    String pattern() { return \"yyyy-MM-dd\"; }\n"
+                + "}\n");
+    }
+
+    @Test
+    public void literalsDuplicatedAcrossFilesTest() {
+        ProjectLiteralIndex projectLiteralIndex = new ProjectLiteralIndex();
+        inspectAll(projectLiteralIndex);
+
+        List<Finding> findings = projectLiteralIndex.getDuplicatedLiterals();
+        // "local" is only duplicated within its own file, the per-file detector reports it
+        assertEquals(3, findings.size());
+        assertEquals("DateTimeFormat.java", findings.get(0).getPath());
+        assertEquals("DateTimeFormatterBuilder.java", findings.get(1).getPath());
+        assertEquals("ISODateTimeFormat.java", findings.get(2).getPath());
+        assertEquals(ProjectLiteralIndex.NAME, findings.get(0).getRuleId());
+        assertEquals("duplicated string literal across files captured: [\"yyyy-MM-dd\"] at DateTimeFormat.java:2:43 (1 of 3)",
+                findings.get(0).getMessage());
+        assertEquals(2, projectLiteralIndex.size());
+    }
+
+    @Test
+    public void approximateSameFindingsAsExactTest() {
+        ProjectLiteralIndex projectLiteralIndex = new ProjectLiteralIndex();
+        inspectAll(projectLiteralIndex);
+        ApproximateLiteralIndex approximateLiteralIndex = new ApproximateLiteralIndex(1024 * 1024);
+        inspectAll(approximateLiteralIndex);
+        // the first pass only counts
+        assertEquals(0, approximateLiteralIndex.size());
+        for (Map.Entry<String, String> source : SOURCES.entrySet()) {
+            approximateLiteralIndex.addCandidates(source.getKey(), new SourceParser(false).parse(source.getValue())
+                    .findAll(StringLiteralExpr.class, DuplicatedStringLiteralDetector::isInFieldVariableOrMethod));
+        }
+
+        assertEquals(projectLiteralIndex.getDuplicatedLiterals(), approximateLiteralIndex.getDuplicatedLiterals());
+        // "local" is counted once for its file, it is no candidate
+        assertEquals(1, approximateLiteralIndex.size());
+        assertEquals(0, approximateLiteralIndex.getDroppedOccurrences());
+    }
+
+    @Test
+    public void inspectedPathsCountedInMemoryCeilingTest() {
+        ApproximateLiteralIndex approximateLiteralIndex = new ApproximateLiteralIndex(1024 * 1024);
+        inspectAll(approximateLiteralIndex);
+        // a path longer than the share of the exact index leaves no room for the candidates
+        StringBuilder longPath = new StringBuilder();
+        while (longPath.length() < 512 * 1024) {
+            longPath.append("org/joda/time/");
+        }
+        approximateLiteralIndex.addInspectedPath(longPath.toString());
+        for (Map.Entry<String, String> source : SOURCES.entrySet()) {
+            approximateLiteralIndex.addCandidates(source.getKey(), new SourceParser(false).parse(source.getValue())
+                    .findAll(StringLiteralExpr.class, DuplicatedStringLiteralDetector::isInFieldVariableOrMethod));
+        }
+
+        assertEquals(0, approximateLiteralIndex.size());
+        assertEquals(3, approximateLiteralIndex.getDroppedOccurrences());
+        // the path itself is kept for the second pass
+        assertEquals(Collections.singletonList(longPath.toString()), approximateLiteralIndex.getInspectedPaths());
+    }
+
+    @Test
+    public void sketchNeverUnderestimatesTest() {
+        CountMinSketch sketch = new CountMinSketch(0, 3);
+        // the smallest sketch, many collisions
+        assertEquals(64, sketch.getWidth());
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("literal" + i);
+            if (i % 2 == 0) {
+                sketch.add("literal" + i);
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(sketch.estimate("literal" + i) >= (i % 2 == 0 ? 2 : 1));
+            assertTrue(sketch.estimate("literal" + i) <= 3);
+        }
+    }
+
+    @Test
+    public void sketchRowsIndependentOfHashCodeTest() {
+        CountMinSketch sketch = new CountMinSketch(1024 * 1024, 2);
+        // "Aa" and "BB" have the same hashCode(), so do all the strings made of 10 of them
+        List<String> sameHashCode = new ArrayList<>();
+        for (int bits = 0; bits < 1 << 10; bits++) {
+            StringBuilder item = new StringBuilder();
+            for (int i = 0; i < 10; i++) {
+                item.append((bits >> i & 1) == 0 ? "Aa" : "BB");
+            }
+            sameHashCode.add(item.toString());
+        }
+        sketch.add(sameHashCode.get(0));
+        sketch.add(sameHashCode.get(0));
+
+        assertEquals(2, sketch.estimate(sameHashCode.get(0)));
+        for (String item : sameHashCode.subList(1, sameHashCode.size())) {
+            assertEquals(item.hashCode(), sameHashCode.get(0).hashCode());
+            assertEquals(item, 0, sketch.estimate(item));
+        }
+    }
+
+    private static void inspectAll(final LiteralIndex literalIndex) {
+        DetectorTraversal detectorTraversal = new DetectorTraversal(DetectorTraversal.detectors(null, literalIndex, null));
+        for (Map.Entry<String, String> source : SOURCES.entrySet()) {
+            inspect(detectorTraversal, source.getKey(), source.getValue());
+        }
+    }
+
+    private static void inspect(final DetectorTraversal detectorTraversal, final String path, final String source) {
+        AnalysisSession session = new AnalysisSession(new SourceParser(false).parse(source), path, false,
+                new PrintStream(new ByteArrayOutputStream(), true));
+        detectorTraversal.run(session);
+    }
+}
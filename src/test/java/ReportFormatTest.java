@@ -0,0 +1,45 @@
+import com.github.javaparser.Range;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class ReportFormatTest {
+    private static final Finding FINDING = new Finding(BadStringComparisonDetector.NAME, "/tmp/A.java", Range.range(3, 9, 3, 14),
+            "Bad String comparison captured: [a == b]", "a == \"b\"\t");
+
+    @Test
+    public void jsonOneObjectPerLineTest() {
+        StringWriter text = new StringWriter();
+        try (FindingSink findingSink = new JsonReportFormat(new PrintWriter(text))) {
+            findingSink.beginFile("/tmp/A.java");
+            findingSink.finding(FINDING);
+            findingSink.note("done");
+        }
+        String[] lines = text.toString().split(System.lineSeparator());
+        assertEquals(3, lines.length);
+        assertEquals("{\"file\":\"/tmp/A.java\"}", lines[0]);
+        assertEquals("{\"rule\":\"BadStringComparison\",\"file\":\"/tmp/A.java\",\"startLine\":3,\"startColumn\":9,"
+                + "\"endLine\":3,\"endColumn\":14,\"message\":\"Bad String comparison captured: [a == b]\","
+                + "\"snippet\":\"a == \\\"b\\\"\\t\"}", lines[1]);
+        assertEquals("{\"note\":\"done\"}", lines[2]);
+    }
+
+    @Test
+    public void sarifCompletedByCloseTest() {
+        StringWriter text = new StringWriter();
+        try (FindingSink findingSink = new SarifReportFormat(new PrintWriter(text))) {
+            findingSink.beginFile("/tmp/A.java");
+            findingSink.finding(FINDING);
+            findingSink.finding(FINDING);
+            findingSink.note("done");
+        }
+        String sarif = text.toString();
+        assertTrue(sarif.startsWith("{\"version\":\"2.1.0\""));
+        assertTrue(sarif.contains("\"region\":{\"startLine\":3,\"startColumn\":9,\"endLine\":3,\"endColumn\":15,"));
+        assertTrue(sarif.contains("}]}," + System.lineSeparator() + "{\"ruleId\":\"BadStringComparison\""));
+        assertTrue(sarif.trim().endsWith("],\"properties\":{\"notes\":[\"done\"]}}]}"));
+    }
+}
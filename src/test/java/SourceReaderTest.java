@@ -0,0 +1,34 @@
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class SourceReaderTest {
+    @Test
+    public void sameTextAsStringConstructorTest() throws Exception {
+        SourceReader sourceReader = new SourceReader();
+        StringBuilder large = new StringBuilder();
+        while (large.length() < 3 << 20) {
+            large.append("String s = \"\u00e9t\u00e9 \u4e2d\u6587\";\n");
+        }
+        // small, large enough to be memory-mapped, then small again in the grown buffers
+        String[] sources = {"class A { String a = \"\u00e9\"; }", large.toString(), "class B {}"};
+        for (String source : sources) {
+            Path file = Files.createTempFile("SourceReader", ".java");
+            Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+            assertEquals(source, sourceReader.decode(sourceReader.read(file)));
+        }
+    }
+
+    @Test
+    public void malformedInputReplacedTest() throws Exception {
+        byte[] content = {'c', 'l', 'a', 's', 's', ' ', (byte) 0xC3, (byte) 0x28, ' ', (byte) 0xFF};
+        Path file = Files.createTempFile("SourceReader", ".java");
+        Files.write(file, content);
+        SourceReader sourceReader = new SourceReader();
+        assertEquals(new String(content, StandardCharsets.UTF_8), sourceReader.decode(sourceReader.read(file)));
+    }
+}
@@ -0,0 +1,34 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SymbolTableTest {
+    @Test
+    public void internAssignsStableIdsTest() {
+        SymbolTable symbolTable = new SymbolTable();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, symbolTable.intern("name" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            // a distinct String instance with the same characters
+            assertEquals(i, symbolTable.lookup(new String("name" + i)));
+            assertEquals("name" + i, symbolTable.nameOf(i));
+        }
+        assertEquals(SymbolTable.NO_ID, symbolTable.lookup("clone"));
+        assertEquals(1000, symbolTable.size());
+    }
+
+    @Test
+    public void intSetTest() {
+        IntSet intSet = new IntSet();
+        for (int i = 0; i < 1000; i += 3) {
+            assertTrue(intSet.add(i));
+        }
+        assertFalse(intSet.add(999));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 3 == 0, intSet.contains(i));
+        }
+        assertFalse(intSet.contains(SymbolTable.NO_ID));
+        assertEquals(334, intSet.size());
+    }
+}
@@ -0,0 +1,32 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paths of the test pattern files in src/test/java/testpatterns, shared by the tests
+ */
+final class TestPatterns {
+    static final String[] NAMES = {"1-1", "1-2", "1-3", "2-1", "2-2", "2-3", "EC-1", "EC-2", "EC-3"};
+
+    private TestPatterns() {
+    }
+
+    /**
+     * @param name name of a test pattern, e.g. "1-1"
+     * @return absolute path of its file, e.g. ".../src/test/java/testpatterns/testpattern1-1.java"
+     */
+    static String path(final String name) {
+        return new File("").getAbsolutePath().concat("/src/test/java/testpatterns/testpattern" + name + ".java");
+    }
+
+    /**
+     * @return absolute paths of all the test patterns, in the order of NAMES
+     */
+    static List<String> paths() {
+        List<String> paths = new ArrayList<>(NAMES.length);
+        for (String name : NAMES) {
+            paths.add(path(name));
+        }
+        return paths;
+    }
+}
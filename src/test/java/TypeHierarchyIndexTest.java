@@ -0,0 +1,80 @@
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TypeHierarchyIndexTest {
+    @Test
+    public void cloneableThroughSupertypesTest() {
+        TypeHierarchyIndex typeHierarchyIndex = new TypeHierarchyIndex();
+        DetectorTraversal detectorTraversal = new DetectorTraversal(DetectorTraversal.detectors(null, null, typeHierarchyIndex));
+        // the subclasses come before their supertypes, like they may in a parallel scan
+        inspect(detectorTraversal, "Child.java", "package a;\n"
+                + "class Child extends Base {\n"
+                + "    public Object clone() { return this; }\n"
+                + "}\n");
+        inspect(detectorTraversal, "Impl.java", "package c;\n"
+                + "import b.Marker;\n"
+                + "class Impl implements Marker {\n"
+                + "    public Object clone() { return this; }\n"
+                + "    static class Inner {\n"
+                + "        public Object clone() { return this; }\n"
+                + "    }\n"
+                + "}\n");
+        inspect(detectorTraversal, "Base.java", "package a;\n"
+                + "public class Base implements Cloneable { }\n");
+        inspect(detectorTraversal, "Marker.java", "package b;\n"
+                + "public interface Marker extends java.lang.Cloneable { }\n");
+        inspect(detectorTraversal, "Dates.java", "package c;\n"
+                + "class Dates extends java.util.Date {\n"
+                + "    public Object clone() { return this; }\n"
+                + "}\n");
+        typeHierarchyIndex.complete();
+
+        assertTrue(typeHierarchyIndex.isCloneable("a.Child"));
+        assertTrue(typeHierarchyIndex.isCloneable("c.Impl"));
+        assertFalse(typeHierarchyIndex.isCloneable("c.Impl.Inner"));
+        // through the JDK
+        assertTrue(typeHierarchyIndex.isCloneable("c.Dates"));
+        List<Finding> findings = typeHierarchyIndex.getCloneableFindings();
+        assertEquals(1, findings.size());
+        assertEquals("Impl.java", findings.get(0).getPath());
+        assertEquals(6, findings.get(0).getRange().get().begin.line);
+        assertEquals(0, typeHierarchyIndex.getUnresolvedSupertypes());
+    }
+
+    @Test
+    public void importedJdkTypeHidesPackageTypeTest() {
+        TypeHierarchyIndex typeHierarchyIndex = new TypeHierarchyIndex();
+        DetectorTraversal detectorTraversal = new DetectorTraversal(DetectorTraversal.detectors(null, null, typeHierarchyIndex));
+        inspect(detectorTraversal, "Stamp.java", "package a;\n"
+                + "import java.util.Date;\n"
+                + "class Stamp extends Date {\n"
+                + "    public Object clone() { return this; }\n"
+                + "}\n");
+        inspect(detectorTraversal, "Date.java", "package a;\n"
+                + "class Date { }\n");
+        inspect(detectorTraversal, "Local.java", "package a;\n"
+                + "class Local extends Date {\n"
+                + "    public Object clone() { return this; }\n"
+                + "}\n");
+        typeHierarchyIndex.complete();
+
+        // java.util.Date, not a.Date
+        assertTrue(typeHierarchyIndex.isCloneable("a.Stamp"));
+        assertFalse(typeHierarchyIndex.isCloneable("a.Local"));
+        List<Finding> findings = typeHierarchyIndex.getCloneableFindings();
+        assertEquals(1, findings.size());
+        assertEquals("Local.java", findings.get(0).getPath());
+    }
+
+    private static void inspect(final DetectorTraversal detectorTraversal, final String path, final String source) {
+        AnalysisSession session = new AnalysisSession(new SourceParser(false).parse(source), path, false,
+                new PrintStream(new ByteArrayOutputStream(), true));
+        assertTrue(detectorTraversal.run(session).get(CloneableDetector.NAME));
+        assertTrue(session.getFindings().isEmpty());
+    }
+}
@@ -0,0 +1,124 @@
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class TypeResolutionTest {
+    @Test
+    public void findSourceRootsTest() throws Exception {
+        Path directory = Files.createTempDirectory("bugfinder-roots");
+        Path mainRoot = directory.resolve("src/main/java");
+        Path testRoot = directory.resolve("src/test/java");
+        write(mainRoot.resolve("org/joda/time/DateTime.java"), "package org.joda.time;\nclass DateTime { }");
+        write(mainRoot.resolve("org/joda/time/format/DateTimeFormat.java"), "/* header */\npackage org.joda.time.format;\nclass DateTimeFormat { }");
+        write(testRoot.resolve("org/joda/time/TestDateTime.java"), "package org.joda.time;\nclass TestDateTime { }");
+        // the package does not match the directories, the file cannot be found by the symbol solver anyway
+        write(directory.resolve("misplaced/Misplaced.java"), "package org.joda.time;\nclass Misplaced { }");
+
+        List<Path> sourceRoots = TypeResolution.findSourceRoots(directory);
+        assertEquals(new HashSet<>(Arrays.asList(mainRoot.toAbsolutePath(), testRoot.toAbsolutePath())), new HashSet<>(sourceRoots));
+    }
+
+    @Test
+    public void resolvedStringComparisonTest() {
+        String source = "class Comparisons {\n"
+                + "    private java.lang.String qualified;\n"
+                + "    private Integer number;\n"
+                + "    String name() { return qualified; }\n"
+                + "    boolean compare(String parameter, Integer other) {\n"
+                + "        String local = parameter;\n"
+                + "        return local == parameter\n"
+                + "                || name() != qualified\n"
+                + "                || qualified == \"literal\"\n"
+                + "                || number == other\n"
+                + "                || local == null;\n"
+                + "    }\n"
+                + "}\n";
+        CompilationUnit compilationUnit = new SourceParser(false).parse(source);
+        AnalysisSession session = new AnalysisSession(compilationUnit, "Comparisons.java", false, new PrintStream(new ByteArrayOutputStream(), true));
+        TypeResolution typeResolution = new TypeResolution(Collections.emptyList(), 1000);
+        Map<String, Boolean> results = new DetectorTraversal(DetectorTraversal.detectors(typeResolution, null, null)).run(session);
+
+        assertFalse(results.get(BadStringComparisonDetector.NAME));
+        assertEquals(3, session.getFindings().size());
+        assertEquals("Bad String comparison captured: [local == parameter]", session.getFindings().get(0).getMessage());
+        assertEquals("Bad String comparison captured: [name() != qualified]", session.getFindings().get(1).getMessage());
+        assertEquals("Bad String comparison captured: [qualified == \"literal\"]", session.getFindings().get(2).getMessage());
+        assertEquals(0, typeResolution.getUnresolvedCount());
+    }
+
+    // a thread stuck on the state of another one would never return
+    @Test(timeout = 60_000)
+    public void crossFileTypesResolvedConcurrentlyTest() throws Exception {
+        Path sourceRoot = Files.createTempDirectory("bugfinder-roots");
+        write(sourceRoot.resolve("a/Name.java"), "package a;\n"
+                + "public class Name extends Base {\n"
+                + "    public String value() { return \"x\"; }\n"
+                + "}\n");
+        write(sourceRoot.resolve("a/Base.java"), "package a;\n"
+                + "public class Base {\n"
+                + "    public String text;\n"
+                + "    public Integer count;\n"
+                + "}\n");
+        TypeResolution typeResolution = new TypeResolution(Collections.singletonList(sourceRoot), 1000);
+        DetectorTraversal detectorTraversal = new DetectorTraversal(DetectorTraversal.detectors(typeResolution, null, null));
+
+        int threadCount = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Finding>>> findings = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                String source = "package b;\n"
+                        + "import a.Name;\n"
+                        + "class User" + i + " {\n"
+                        + "    boolean compare(Name first, Name second) {\n"
+                        + "        return first.value() == second.value()\n"
+                        + "                || first.text != second.text\n"
+                        + "                || first.count == second.count;\n"
+                        + "    }\n"
+                        + "}\n";
+                String path = "User" + i + ".java";
+                findings.add(executor.submit(() -> {
+                    AnalysisSession session = new AnalysisSession(new SourceParser(false).parse(source), path, false,
+                            new PrintStream(new ByteArrayOutputStream(), true));
+                    // all the threads look the types of package a up at once
+                    start.await();
+                    detectorTraversal.run(session);
+                    return session.getFindings();
+                }));
+            }
+            start.countDown();
+            for (Future<List<Finding>> threadFindings : findings) {
+                List<Finding> fileFindings = threadFindings.get();
+                assertEquals(2, fileFindings.size());
+                assertEquals("Bad String comparison captured: [first.value() == second.value()]", fileFindings.get(0).getMessage());
+                assertEquals("Bad String comparison captured: [first.text != second.text]", fileFindings.get(1).getMessage());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, typeResolution.getUnresolvedCount());
+    }
+
+    private static void write(final Path file, final String source) throws Exception {
+        Files.createDirectories(file.getParent());
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+    }
+}
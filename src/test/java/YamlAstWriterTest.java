@@ -0,0 +1,24 @@
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.printer.YamlPrinter;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class YamlAstWriterTest {
+    @Test
+    public void sameOutputAsYamlPrinterTest() throws Exception {
+        for (String testPattern : TestPatterns.NAMES) {
+            String testPatternPath = TestPatterns.path(testPattern);
+            CompilationUnit compilationUnit = StaticJavaParser.parse(new File(testPatternPath));
+            for (boolean outputNodeType : new boolean[]{true, false}) {
+                StringWriter writer = new StringWriter();
+                new YamlAstWriter(outputNodeType).write(compilationUnit, writer);
+                assertEquals(testPattern, new YamlPrinter(outputNodeType).output(compilationUnit), writer.toString());
+            }
+        }
+    }
+}